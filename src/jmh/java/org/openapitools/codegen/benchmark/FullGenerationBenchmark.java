@@ -0,0 +1,69 @@
+package org.openapitools.codegen.benchmark;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openapitools.codegen.AiohttpOpenapiCodegenGenerator;
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a complete DefaultGenerator run, template rendering and file writes included.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class FullGenerationBenchmark {
+
+  @Param({"1000", "10000"})
+  public int schemas;
+
+  @Param({"16"})
+  public int responsesPerOperation;
+
+  @Param({"1", "0"})
+  public String generatorThreads;
+
+  private File outputDir;
+  private ClientOptInput input;
+
+  @Setup(Level.Invocation)
+  public void buildInput() throws IOException {
+    outputDir = GeneratorFixtures.createOutputDir();
+    OpenAPI openAPI = SyntheticSpecs.build(schemas, schemas / 10, responsesPerOperation);
+    AiohttpOpenapiCodegenGenerator codegen = new AiohttpOpenapiCodegenGenerator();
+    codegen.setOutputDir(outputDir.getAbsolutePath());
+    codegen.additionalProperties().put(AiohttpOpenapiCodegenGenerator.OPTION_GENERATOR_THREADS, generatorThreads);
+    input = new ClientOptInput().openAPI(openAPI).config(codegen);
+  }
+
+  @TearDown(Level.Invocation)
+  public void deleteOutput() throws IOException {
+    GeneratorFixtures.deleteRecursively(outputDir);
+  }
+
+  @Benchmark
+  public List<File> generate() {
+    DefaultGenerator generator = new DefaultGenerator();
+    generator.setGenerateMetadata(false);
+    return generator.opts(input).generate();
+  }
+}
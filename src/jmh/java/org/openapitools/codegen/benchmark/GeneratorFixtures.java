@@ -0,0 +1,113 @@
+package org.openapitools.codegen.benchmark;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.media.Schema;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.openapitools.codegen.AiohttpOpenapiCodegenGenerator;
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenOperation;
+import org.openapitools.codegen.model.ModelMap;
+import org.openapitools.codegen.model.ModelsMap;
+import org.openapitools.codegen.model.OperationMap;
+import org.openapitools.codegen.model.OperationsMap;
+
+/**
+ * Builds the inputs DefaultGenerator would hand to the post-processing hooks, so the hooks can
+ * be measured without the template rendering around them.
+ */
+final class GeneratorFixtures {
+
+  private GeneratorFixtures() {
+  }
+
+  static AiohttpOpenapiCodegenGenerator prepare(OpenAPI openAPI, File outputDir, String generatorThreads) {
+    AiohttpOpenapiCodegenGenerator codegen = new AiohttpOpenapiCodegenGenerator();
+    codegen.setOutputDir(outputDir.getAbsolutePath());
+    codegen.additionalProperties().put(AiohttpOpenapiCodegenGenerator.OPTION_GENERATOR_THREADS, generatorThreads);
+    codegen.setOpenAPI(openAPI);
+    codegen.processOpts();
+    codegen.preprocessOpenAPI(openAPI);
+    return codegen;
+  }
+
+  static List<ModelsMap> models(AiohttpOpenapiCodegenGenerator codegen, OpenAPI openAPI) {
+    List<ModelsMap> result = new ArrayList<>();
+    for (Map.Entry<String, Schema> entry : openAPI.getComponents().getSchemas().entrySet()) {
+      CodegenModel model = codegen.fromModel(entry.getKey(), entry.getValue());
+      ModelMap modelMap = new ModelMap();
+      modelMap.setModel(model);
+      modelMap.put("importPath", codegen.toModelImport(model.classname));
+      ModelsMap modelsMap = new ModelsMap();
+      modelsMap.put("package", codegen.modelPackage());
+      modelsMap.setModels(Collections.singletonList(modelMap));
+      modelsMap.setImports(new ArrayList<>());
+      result.add(modelsMap);
+    }
+    return result;
+  }
+
+  static Map<String, ModelsMap> modelsByName(List<ModelsMap> models) {
+    Map<String, ModelsMap> result = new LinkedHashMap<>();
+    for (ModelsMap modelsMap : models) {
+      result.put(modelsMap.getModels().get(0).getModel().name, modelsMap);
+    }
+    return result;
+  }
+
+  static List<ModelMap> allModels(List<ModelsMap> models) {
+    List<ModelMap> result = new ArrayList<>();
+    for (ModelsMap modelsMap : models) {
+      result.addAll(modelsMap.getModels());
+    }
+    return result;
+  }
+
+  static List<OperationsMap> operations(AiohttpOpenapiCodegenGenerator codegen, OpenAPI openAPI) {
+    Map<String, List<CodegenOperation>> byTag = new LinkedHashMap<>();
+    for (Map.Entry<String, PathItem> path : openAPI.getPaths().entrySet()) {
+      for (Map.Entry<PathItem.HttpMethod, Operation> operation : path.getValue().readOperationsMap().entrySet()) {
+        CodegenOperation codegenOperation = codegen.fromOperation(path.getKey(),
+          operation.getKey().name().toLowerCase(), operation.getValue(), null);
+        byTag.computeIfAbsent(operation.getValue().getTags().get(0), tag -> new ArrayList<>()).add(codegenOperation);
+      }
+    }
+    List<OperationsMap> result = new ArrayList<>();
+    for (Map.Entry<String, List<CodegenOperation>> tag : byTag.entrySet()) {
+      OperationMap operationMap = new OperationMap();
+      operationMap.setClassname(codegen.toApiName(tag.getKey()));
+      operationMap.setOperation(tag.getValue());
+      OperationsMap operationsMap = new OperationsMap();
+      operationsMap.setOperation(operationMap);
+      operationsMap.put("package", codegen.apiPackage());
+      operationsMap.put("classFilename", codegen.toApiFilename(tag.getKey()));
+      operationsMap.setImports(new ArrayList<>());
+      result.add(operationsMap);
+    }
+    return result;
+  }
+
+  static File createOutputDir() throws IOException {
+    return Files.createTempDirectory("aiohttp-codegen-benchmark").toFile();
+  }
+
+  static void deleteRecursively(File directory) throws IOException {
+    if (directory == null || !directory.exists()) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(directory.toPath())) {
+      files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package org.openapitools.codegen.benchmark;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openapitools.codegen.AiohttpOpenapiCodegenGenerator;
+import org.openapitools.codegen.model.ModelMap;
+import org.openapitools.codegen.model.ModelsMap;
+import org.openapitools.codegen.model.OperationsMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the generator hooks DefaultGenerator calls per model, once for all models and once
+ * per tag, single-threaded and on every available processor.
+ *
+ * The hooks mutate their input, so every invocation works on freshly built codegen objects
+ * and is timed as a single shot over the whole synthetic document.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class PostProcessBenchmark {
+
+  @Param({"1000", "10000"})
+  public int schemas;
+
+  @Param({"16"})
+  public int responsesPerOperation;
+
+  @Param({"1", "0"})
+  public String generatorThreads;
+
+  private File outputDir;
+  private AiohttpOpenapiCodegenGenerator codegen;
+  private List<ModelsMap> models;
+  private Map<String, ModelsMap> modelsByName;
+  private List<ModelMap> allModels;
+  private List<OperationsMap> operations;
+
+  @Setup(Level.Trial)
+  public void createOutputDir() throws IOException {
+    outputDir = GeneratorFixtures.createOutputDir();
+  }
+
+  @Setup(Level.Invocation)
+  public void buildInputs() {
+    OpenAPI openAPI = SyntheticSpecs.build(schemas, schemas / 10, responsesPerOperation);
+    codegen = GeneratorFixtures.prepare(openAPI, outputDir, generatorThreads);
+    models = GeneratorFixtures.models(codegen, openAPI);
+    modelsByName = GeneratorFixtures.modelsByName(models);
+    allModels = GeneratorFixtures.allModels(models);
+    operations = GeneratorFixtures.operations(codegen, openAPI);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteOutputDir() throws IOException {
+    GeneratorFixtures.deleteRecursively(outputDir);
+  }
+
+  @Benchmark
+  public void postProcessModels(Blackhole blackhole) {
+    for (ModelsMap modelsMap : models) {
+      blackhole.consume(codegen.postProcessModels(modelsMap));
+    }
+    blackhole.consume(codegen.updateAllModels(modelsByName));
+  }
+
+  @Benchmark
+  public void postProcessOperationsWithModels(Blackhole blackhole) {
+    for (OperationsMap operationsMap : operations) {
+      blackhole.consume(codegen.postProcessOperationsWithModels(operationsMap, allModels));
+    }
+  }
+}
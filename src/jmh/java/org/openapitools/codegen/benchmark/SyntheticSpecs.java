@@ -0,0 +1,124 @@
+package org.openapitools.codegen.benchmark;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.DateTimeSchema;
+import io.swagger.v3.oas.models.media.IntegerSchema;
+import io.swagger.v3.oas.models.media.MapSchema;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.ObjectSchema;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.media.StringSchema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.PathParameter;
+import io.swagger.v3.oas.models.parameters.QueryParameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds deterministic OpenAPI documents of arbitrary size for the generator benchmarks.
+ *
+ * Schemas form $ref chains of CHAIN_DEPTH links: every schema references its predecessor, itself,
+ * and an array and a map of chain roots, and carries the constraints the generator compiles
+ * (enum, pattern, lengths, ranges, formats). Chains are bounded because example generation
+ * expands references recursively. Operations are spread over a fixed number of tags and
+ * declare many responses each, all referencing schemas.
+ */
+final class SyntheticSpecs {
+
+  static final int TAGS = 10;
+  static final int CHAIN_DEPTH = 64;
+
+  private SyntheticSpecs() {
+  }
+
+  static OpenAPI build(int schemaCount, int operationCount, int responsesPerOperation) {
+    Map<String, Schema> schemas = new LinkedHashMap<>();
+    for (int index = 0; index < schemaCount; index++) {
+      schemas.put(schemaName(index), buildSchema(index));
+    }
+    Paths paths = new Paths();
+    for (int index = 0; index < operationCount; index++) {
+      paths.addPathItem("/resource" + index + "/{id}", buildPathItem(index, schemaCount, responsesPerOperation));
+    }
+    return new OpenAPI()
+      .info(new Info().title("Synthetic").version("1.0.0"))
+      .paths(paths)
+      .components(new Components().schemas(schemas));
+  }
+
+  static String schemaName(int index) {
+    return "Schema" + index;
+  }
+
+  private static Schema ref(int index) {
+    return new Schema<>().$ref("#/components/schemas/" + schemaName(index));
+  }
+
+  private static Schema buildSchema(int index) {
+    ObjectSchema schema = new ObjectSchema();
+    schema.addProperty("id", new IntegerSchema().format("int64").minimum(BigDecimal.ZERO));
+    schema.addProperty("name", new StringSchema().pattern("^[a-z][a-z0-9_]*$").maxLength(64));
+    schema.addProperty("status", new StringSchema()._enum(Arrays.asList("new", "active", "archived")));
+    schema.addProperty("created", new DateTimeSchema());
+    schema.addProperty("labels", new ArraySchema().items(new StringSchema()).maxItems(32));
+    schema.addProperty("self", ref(index));
+    int root = index - index % CHAIN_DEPTH;
+    if (index != root) {
+      schema.addProperty("parent", ref(index - 1));
+      schema.addProperty("children", new ArraySchema().items(ref(root)));
+      schema.addProperty("byKey", new MapSchema().additionalProperties(ref(root > 0 ? root - CHAIN_DEPTH : root)));
+    }
+    schema.setRequired(Collections.singletonList("id"));
+    return schema;
+  }
+
+  private static PathItem buildPathItem(int index, int schemaCount, int responsesPerOperation) {
+    String tag = "tag" + (index % TAGS);
+    Parameter id = new PathParameter().name("id").schema(new IntegerSchema().format("int64"));
+    Parameter limit = new QueryParameter().name("limit")
+      .schema(new IntegerSchema().minimum(BigDecimal.ONE).maximum(BigDecimal.valueOf(500)));
+    Parameter status = new QueryParameter().name("status")
+      .schema(new StringSchema()._enum(Arrays.asList("new", "active", "archived")));
+
+    ApiResponses responses = new ApiResponses();
+    for (int response = 0; response < responsesPerOperation; response++) {
+      String code = response == 0 ? "200" : String.valueOf(400 + response);
+      responses.addApiResponse(code, jsonResponse(ref((index + response) % schemaCount)));
+    }
+    Operation get = new Operation()
+      .operationId("get" + index)
+      .tags(Collections.singletonList(tag))
+      .addParametersItem(id)
+      .addParametersItem(limit)
+      .addParametersItem(status)
+      .responses(responses);
+    Operation put = new Operation()
+      .operationId("put" + index)
+      .tags(Collections.singletonList(tag))
+      .addParametersItem(id)
+      .requestBody(new RequestBody().required(true).content(jsonContent(ref(index % schemaCount))))
+      .responses(new ApiResponses().addApiResponse("200", jsonResponse(ref(index % schemaCount))));
+    return new PathItem().get(get).put(put);
+  }
+
+  private static ApiResponse jsonResponse(Schema schema) {
+    return new ApiResponse().description("response").content(jsonContent(schema));
+  }
+
+  private static Content jsonContent(Schema schema) {
+    return new Content().addMediaType("application/json", new MediaType().schema(schema));
+  }
+}
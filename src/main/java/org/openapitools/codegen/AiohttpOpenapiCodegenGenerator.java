@@ -2,20 +2,36 @@ package org.openapitools.codegen;
 
 import static org.openapitools.codegen.utils.StringUtils.underscore;
 
+import com.google.common.collect.ImmutableMap;
+import com.samskivert.mustache.Mustache;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.info.Contact;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.servers.Server;
 import io.swagger.v3.oas.models.servers.ServerVariable;
 import java.io.File;
+import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
@@ -26,33 +42,124 @@ import org.openapitools.codegen.CodegenOperation;
 import org.openapitools.codegen.CodegenParameter;
 import org.openapitools.codegen.CodegenProperty;
 import org.openapitools.codegen.CodegenResponse;
+import org.openapitools.codegen.CodegenSecurity;
 import org.openapitools.codegen.CodegenType;
 import org.openapitools.codegen.SupportingFile;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
 import org.openapitools.codegen.languages.AbstractPythonCodegen;
 import org.openapitools.codegen.model.ModelMap;
 import org.openapitools.codegen.model.ModelsMap;
 import org.openapitools.codegen.model.OperationMap;
 import org.openapitools.codegen.model.OperationsMap;
+import org.openapitools.codegen.templating.mustache.IndentedLambda;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
 
+  private final Logger LOGGER = LoggerFactory.getLogger(AiohttpOpenapiCodegenGenerator.class);
+
   public static final String OPTION_PYTHON_SRC_ROOT = "pythonSrcRoot";
   public static final String OPTION_APP_NAME = "appName";
   public static final String OPTION_APP_DESCRIPTION = "appDescription";
   public static final String OPTION_INFO_EMAIL = "infoEmail";
   public static final String OPTION_PACKAGE_URL = "packageUrl";
   public static final String OPTION_SERVER_PORT = "serverPort";
+  public static final String OPTION_WORKERS = "workers";
+  public static final String OPTION_EVENT_LOOP = "eventLoop";
+  public static final String OPTION_BACKLOG = "backlog";
   public static final String OPTION_CONTEXT_PATH = "contextPath";
   public static final String OPTION_FEATURE_CORS = "featureCORS";
+  public static final String OPTION_FEATURE_METRICS = "featureMetrics";
+  public static final String OPTION_FEATURE_COMPRESSION = "featureCompression";
+  public static final String OPTION_COMPRESSION_MIN_SIZE = "compressionMinSize";
+  public static final String OPTION_COMPRESSION_LEVEL = "compressionLevel";
+  public static final String OPTION_COMPRESSION_EXECUTOR_SIZE = "compressionExecutorSize";
+  public static final String OPTION_FEATURE_OFFLOAD = "featureOffload";
+  public static final String OPTION_OFFLOAD_THRESHOLD = "offloadThreshold";
+  public static final String OPTION_OFFLOAD_WORKERS = "offloadWorkers";
+  public static final String OPTION_CLIENT_MAX_SIZE = "clientMaxSize";
+  public static final String OPTION_FEATURE_BENCHMARKS = "featureBenchmarks";
+  public static final String OPTION_MAX_CONCURRENCY = "maxConcurrency";
+  public static final String OPTION_QUEUE_TIMEOUT_MS = "queueTimeoutMs";
+  public static final String OPTION_REQUEST_TIMEOUT_MS = "requestTimeoutMs";
+  public static final String OPTION_FEATURE_BATCH = "featureBatch";
+  public static final String OPTION_BATCH_MAX_ITEMS = "batchMaxItems";
+  public static final String OPTION_BATCH_CONCURRENCY = "batchConcurrency";
   public static final String OPTION_GENERATOR_LANGUAGE_VERSION = "generatorLanguageVersion";
   public static final String OPTION_TESTS_ROOT = "testsRoot";
   public static final String OPTION_HANDLER_PACKAGE = "handlerPackage";
+  public static final String OPTION_SERIALIZATION_MODE = "serializationMode";
+  public static final String OPTION_JSON_LIBRARY = "jsonLibrary";
+  public static final String OPTION_MODEL_MODE = "modelMode";
+  public static final String OPTION_DICT_RESPONSE_MODE = "dictResponseMode";
+  public static final String OPTION_MODEL_VALIDATION = "modelValidation";
+  public static final String OPTION_VALIDATE_RESPONSES = "validateResponses";
+  public static final String OPTION_LAZY_CONTROLLERS = "lazyControllers";
+  public static final String OPTION_LAZY_SCHEMAS = "lazySchemas";
+  public static final String OPTION_INCREMENTAL = "incremental";
+  public static final String OPTION_GENERATOR_THREADS = "generatorThreads";
+
+  public static final String SERIALIZATION_MODE_REFLECTIVE = "reflective";
+  public static final String SERIALIZATION_MODE_COMPILED = "compiled";
+  public static final String JSON_LIBRARY_STDLIB = "stdlib";
+  public static final String JSON_LIBRARY_ORJSON = "orjson";
+  public static final String JSON_LIBRARY_MSGSPEC = "msgspec";
+  public static final String MODEL_MODE_CLASSIC = "classic";
+  public static final String MODEL_MODE_SLOTS = "slots";
+  public static final String DICT_RESPONSE_MODE_CONVERT = "convert";
+  public static final String DICT_RESPONSE_MODE_VALIDATE = "validate";
+  public static final String DICT_RESPONSE_MODE_TRUST = "trust";
+  public static final String MODEL_VALIDATION_SETTER = "setter";
+  public static final String MODEL_VALIDATION_COMPILED = "compiled";
+  public static final String EVENT_LOOP_AUTO = "auto";
+  public static final String EVENT_LOOP_ASYNCIO = "asyncio";
+  public static final String EVENT_LOOP_UVLOOP = "uvloop";
+
+  public static final String VENDOR_EXTENSION_STREAMING = "x-streaming";
+  public static final String VENDOR_EXTENSION_MAX_BODY_SIZE = "x-max-body-size";
+  public static final String VENDOR_EXTENSION_CACHE = "x-cache";
+  public static final String VENDOR_EXTENSION_COMPRESSION = "x-compression";
+  public static final String VENDOR_EXTENSION_OFFLOAD = "x-offload";
+  public static final String VENDOR_EXTENSION_MAX_CONCURRENCY = "x-max-concurrency";
+  public static final String VENDOR_EXTENSION_QUEUE_TIMEOUT = "x-queue-timeout-ms";
+  public static final String VENDOR_EXTENSION_TIMEOUT = "x-timeout-ms";
+  public static final String VENDOR_EXTENSION_COALESCE = "x-coalesce";
+
+  private static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+  private static final String MULTIPART_PARAM_NAME = "multipart";
+  private static final long MULTIPART_FIELDS_ALLOWANCE = 64 * 1024;
+  private static final String DEFAULT_CACHE_TTL = "60";
+  private static final long DEFAULT_CACHE_MAX_ENTRIES = 1024;
+  private static final long DEFAULT_CACHE_MAX_BYTES = 16 * 1024 * 1024;
+  // aiohttp's default client_max_size
+  private static final int DEFAULT_CLIENT_MAX_SIZE = 1024 * 1024;
+  private static final Set<String> COERCED_PRIMITIVES =
+    Collections.unmodifiableSet(new HashSet<>(Arrays.asList("int", "float", "str", "bool")));
 
   private String pythonSrcRoot = "";
   private String testsRoot = "tests";
   private String serverPort = "8080";
+  private int workers = 0;
+  private String eventLoop = EVENT_LOOP_AUTO;
+  private int backlog = 1024;
   private String contextPath = "";
   private boolean featureCORS = false;
+  private boolean featureMetrics = false;
+  private boolean featureCompression = false;
+  private int compressionMinSize = 1024;
+  private int compressionLevel = 6;
+  private int compressionExecutorSize = 256 * 1024;
+  private boolean featureOffload = false;
+  private int offloadThreshold = 256 * 1024;
+  private int offloadWorkers = 4;
+  private boolean featureBenchmarks = false;
+  private int maxConcurrency = 0;
+  private int queueTimeoutMs = 100;
+  private int requestTimeoutMs = 0;
+  private boolean featureBatch = false;
+  private int batchMaxItems = 50;
+  private int batchConcurrency = 8;
   private String generatorLanguageVersion = "3.11";
 
   private String packageRootDir = "";
@@ -60,8 +167,25 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
   private String schemasDir = "";
   private String testsDir = "";
   private String controllerTestsDir = "";
+  private String schemaTestsDir = "";
   private String handlersDir = "";
+  private String benchDir = "";
+  private final Map<String, Pattern> referencePatterns = new ConcurrentHashMap<>();
   private String handlerPackage = "";
+  private String serializationMode = SERIALIZATION_MODE_REFLECTIVE;
+  private String jsonLibrary = JSON_LIBRARY_STDLIB;
+  private String modelMode = MODEL_MODE_CLASSIC;
+  private String dictResponseMode = DICT_RESPONSE_MODE_CONVERT;
+  private String modelValidation = MODEL_VALIDATION_SETTER;
+  private boolean validateResponses = false;
+  private boolean lazyControllers = false;
+  private boolean lazySchemas = false;
+  private boolean incremental = false;
+  private final IncrementalGeneration incrementalGeneration = new IncrementalGeneration(this);
+  private int generatorThreads = 0;
+  private ForkJoinPool annotationPool;
+  private BenchRequests benchRequests;
+  private long clientMaxSize = DEFAULT_CLIENT_MAX_SIZE;
 
   public AiohttpOpenapiCodegenGenerator() {
     super();
@@ -81,10 +205,19 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
 
     apiTestTemplateFiles.clear();
     apiTestTemplateFiles.put("controller_test.mustache", "_controller_test.py");
+    modelTestTemplateFiles.clear();
 
     apiDocTemplateFiles.clear();
     apiDocTemplateFiles.put("handler.mustache", "_handler.py");
 
+    // string formats with a codec in formats.py get a distinct python type each
+    typeMapping.put("UUID", "UUID");
+    typeMapping.put("ByteArray", "bytes");
+    typeMapping.put("binary", "bytearray");
+    languageSpecificPrimitives.add("UUID");
+    languageSpecificPrimitives.add("bytes");
+    languageSpecificPrimitives.add("bytearray");
+
     cliOptions.add(new CliOption(CodegenConstants.PACKAGE_NAME, "Root python package name")
       .defaultValue(this.packageName));
     cliOptions.add(new CliOption(CodegenConstants.PACKAGE_VERSION, "Package version")
@@ -98,9 +231,71 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     cliOptions.add(new CliOption(OPTION_PACKAGE_URL, "Project URL used in the setup metadata"));
     cliOptions.add(new CliOption(OPTION_SERVER_PORT, "Port exposed by the generated aiohttp server")
       .defaultValue(this.serverPort));
+    cliOptions.add(new CliOption(OPTION_WORKERS,
+      "Default number of worker processes started by `python -m <package>`; 0 starts one per CPU")
+      .defaultValue(Integer.toString(this.workers)));
+    cliOptions.add(new CliOption(OPTION_EVENT_LOOP, "Default event loop of the worker processes")
+      .addEnum(EVENT_LOOP_AUTO, "uvloop when it is installed, asyncio otherwise")
+      .addEnum(EVENT_LOOP_ASYNCIO, "The standard library event loop")
+      .addEnum(EVENT_LOOP_UVLOOP, "uvloop; the workers fail to start without it")
+      .defaultValue(this.eventLoop));
+    cliOptions.add(new CliOption(OPTION_BACKLOG, "Default listen backlog of the worker sockets")
+      .defaultValue(Integer.toString(this.backlog)));
     cliOptions.add(new CliOption(OPTION_CONTEXT_PATH, "Context path prefix for the aiohttp routes"));
     cliOptions.add(new CliOption(OPTION_FEATURE_CORS, "Enable aiohttp_cors integration")
       .defaultValue(Boolean.toString(this.featureCORS)));
+    cliOptions.add(new CliOption(OPTION_FEATURE_METRICS,
+      "Record per-operation request metrics and serve them in the Prometheus text format at {contextPath}/metrics")
+      .defaultValue(Boolean.toString(this.featureMetrics)));
+    cliOptions.add(new CliOption(OPTION_FEATURE_COMPRESSION,
+      "Compress response bodies with brotli/gzip/deflate as negotiated from Accept-Encoding; "
+        + "operations override the settings with x-compression")
+      .defaultValue(Boolean.toString(this.featureCompression)));
+    cliOptions.add(new CliOption(OPTION_COMPRESSION_MIN_SIZE, "Smallest response body in bytes that is compressed")
+      .defaultValue(Integer.toString(this.compressionMinSize)));
+    cliOptions.add(new CliOption(OPTION_COMPRESSION_LEVEL, "Compression level from 1 (fastest) to 9 (smallest)")
+      .defaultValue(Integer.toString(this.compressionLevel)));
+    cliOptions.add(new CliOption(OPTION_COMPRESSION_EXECUTOR_SIZE,
+      "Response bodies of at least this many bytes are compressed in a thread pool instead of on the event loop")
+      .defaultValue(Integer.toString(this.compressionExecutorSize)));
+    cliOptions.add(new CliOption(OPTION_FEATURE_OFFLOAD,
+      "Decode request bodies and encode responses in a bounded thread pool once they reach offloadThreshold, "
+        + "or always for operations with x-offload: true; samples event loop lag")
+      .defaultValue(Boolean.toString(this.featureOffload)));
+    cliOptions.add(new CliOption(OPTION_OFFLOAD_THRESHOLD,
+      "Request Content-Length or estimated response size in bytes from which work is offloaded; 0 offloads "
+        + "only operations with x-offload: true")
+      .defaultValue(Integer.toString(this.offloadThreshold)));
+    cliOptions.add(new CliOption(OPTION_OFFLOAD_WORKERS, "Threads of the offload pool")
+      .defaultValue(Integer.toString(this.offloadWorkers)));
+    cliOptions.add(new CliOption(OPTION_CLIENT_MAX_SIZE,
+      "Default client_max_size of create_app: the largest request body in bytes aiohttp reads. Operations with a "
+        + "larger x-max-body-size raise it; 0 is unlimited")
+      .defaultValue(Integer.toString(DEFAULT_CLIENT_MAX_SIZE)));
+    cliOptions.add(new CliOption(OPTION_FEATURE_BENCHMARKS,
+      "Generate the bench package of benchmark scripts and pytest-benchmark tests timing model conversion and "
+        + "JSON coding per schema and a controller round trip per operation")
+      .defaultValue(Boolean.toString(this.featureBenchmarks)));
+    cliOptions.add(new CliOption(OPTION_MAX_CONCURRENCY,
+      "Concurrent handler calls allowed per operation before requests queue; 0 is unlimited. "
+        + "Operations override it with x-max-concurrency")
+      .defaultValue(Integer.toString(this.maxConcurrency)));
+    cliOptions.add(new CliOption(OPTION_QUEUE_TIMEOUT_MS,
+      "Milliseconds a request waits for a free slot of a limited operation before it is rejected with 503; "
+        + "operations override it with x-queue-timeout-ms")
+      .defaultValue(Integer.toString(this.queueTimeoutMs)));
+    cliOptions.add(new CliOption(OPTION_REQUEST_TIMEOUT_MS,
+      "Deadline in milliseconds for parsing, reading the body and running the handler of each operation, "
+        + "answered with 504 when it expires; 0 is none. Operations override it with x-timeout-ms")
+      .defaultValue(Integer.toString(this.requestTimeoutMs)));
+    cliOptions.add(new CliOption(OPTION_FEATURE_BATCH,
+      "Serve POST {contextPath}/_batch, which runs a list of operation calls in process and answers them in one "
+        + "response")
+      .defaultValue(Boolean.toString(this.featureBatch)));
+    cliOptions.add(new CliOption(OPTION_BATCH_MAX_ITEMS, "Largest number of calls accepted in one batch")
+      .defaultValue(Integer.toString(this.batchMaxItems)));
+    cliOptions.add(new CliOption(OPTION_BATCH_CONCURRENCY, "Calls of one batch that run at the same time")
+      .defaultValue(Integer.toString(this.batchConcurrency)));
     cliOptions.add(new CliOption(OPTION_GENERATOR_LANGUAGE_VERSION,
       "Python version documented in README/metadata")
       .defaultValue(this.generatorLanguageVersion));
@@ -108,6 +303,52 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
       .defaultValue(this.testsRoot));
     cliOptions.add(new CliOption(OPTION_HANDLER_PACKAGE, "Python package for generated handler interfaces")
       .defaultValue(this.packageName + ".handlers"));
+    cliOptions.add(new CliOption(OPTION_SERIALIZATION_MODE,
+      "How models convert from/to dicts: 'reflective' walks openapi_types at runtime, "
+        + "'compiled' emits straight-line from_dict/to_dict per schema")
+      .addEnum(SERIALIZATION_MODE_REFLECTIVE, "Generic util.deserialize_model / Model.to_dict")
+      .addEnum(SERIALIZATION_MODE_COMPILED, "Per-model generated from_dict / to_dict")
+      .defaultValue(this.serializationMode));
+    cliOptions.add(new CliOption(OPTION_JSON_LIBRARY,
+      "JSON library used by the generated codec module; falls back to the standard library when missing")
+      .addEnum(JSON_LIBRARY_STDLIB, "Python standard library json")
+      .addEnum(JSON_LIBRARY_ORJSON, "orjson")
+      .addEnum(JSON_LIBRARY_MSGSPEC, "msgspec")
+      .defaultValue(this.jsonLibrary));
+    cliOptions.add(new CliOption(OPTION_MODEL_MODE, "Memory layout of the generated models")
+      .addEnum(MODEL_MODE_CLASSIC, "Per-instance openapi_types/attribute_map and __dict__")
+      .addEnum(MODEL_MODE_SLOTS, "Class-level openapi_types/attribute_map and __slots__")
+      .defaultValue(this.modelMode));
+    cliOptions.add(new CliOption(OPTION_DICT_RESPONSE_MODE,
+      "How plain dicts returned by handlers are turned into response payloads")
+      .addEnum(DICT_RESPONSE_MODE_CONVERT, "Round trip through the response model (from_dict + to_dict)")
+      .addEnum(DICT_RESPONSE_MODE_VALIDATE, "Validate with from_dict, then send the dict unchanged")
+      .addEnum(DICT_RESPONSE_MODE_TRUST, "Send the dict unchanged")
+      .defaultValue(this.dictResponseMode));
+    cliOptions.add(new CliOption(OPTION_MODEL_VALIDATION, "When model constraints are checked")
+      .addEnum(MODEL_VALIDATION_SETTER, "Every property setter checks its own constraints")
+      .addEnum(MODEL_VALIDATION_COMPILED,
+        "Plain setters; one generated validate() pass per request body, reporting all violations")
+      .defaultValue(this.modelValidation));
+    cliOptions.add(new CliOption(OPTION_VALIDATE_RESPONSES,
+      "Also validate response models built by the handlers (useful with modelValidation=compiled)")
+      .defaultValue(Boolean.toString(this.validateResponses)));
+    cliOptions.add(new CliOption(OPTION_LAZY_CONTROLLERS,
+      "Import controllers and handler interfaces only for the handlers a deployment provides; "
+        + "tags without a handler are skipped instead of failing startup")
+      .defaultValue(Boolean.toString(this.lazyControllers)));
+    cliOptions.add(new CliOption(OPTION_LAZY_SCHEMAS,
+      "Load schema modules on first attribute access of the schemas package (PEP 562); "
+        + "model dependencies are imported for type checking only")
+      .defaultValue(Boolean.toString(this.lazySchemas)));
+    cliOptions.add(new CliOption(OPTION_INCREMENTAL,
+      "Record input hashes in " + IncrementalGeneration.MANIFEST_PATH + " and leave files with unchanged "
+        + "inputs untouched on the next run; files of removed schemas and tags are deleted")
+      .defaultValue(Boolean.toString(this.incremental)));
+    cliOptions.add(new CliOption(OPTION_GENERATOR_THREADS,
+      "Threads used to precompute model and operation annotations; 0 uses every available processor, "
+        + "1 forces single-threaded mode. The output does not depend on this value")
+      .defaultValue(Integer.toString(this.generatorThreads)));
   }
 
   @Override
@@ -125,6 +366,95 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     return "Generates a pure aiohttp server stub.";
   }
 
+  @Override
+  public TemplatingEngineAdapter getTemplatingEngine() {
+    // DefaultGenerator asks for the engine before processOpts, so the wrapper checks the option per file.
+    return incrementalGeneration.wrap(super.getTemplatingEngine());
+  }
+
+  @Override
+  protected ImmutableMap.Builder<String, Mustache.Lambda> addMustacheLambdas() {
+    // Unlike lambda.indented, also indents the first line and leaves blank lines blank, so a
+    // partial renders one block deeper under an `async with`.
+    return super.addMustacheLambdas().put("indentedBlock", new IndentedLambda(4, " ", true, true));
+  }
+
+  @Override
+  public boolean isEnableMinimalUpdate() {
+    // Also read before processOpts; without it the template manager rewrites identical content.
+    Object value = additionalProperties.get(OPTION_INCREMENTAL);
+    boolean requested = value instanceof Boolean ? (Boolean) value : value != null && Boolean.parseBoolean(value.toString());
+    return super.isEnableMinimalUpdate() || requested;
+  }
+
+  @Override
+  public void postProcess() {
+    incrementalGeneration.finish(openAPI);
+    if (annotationPool != null) {
+      annotationPool.shutdown();
+      annotationPool = null;
+    }
+    super.postProcess();
+  }
+
+  @Override
+  public void preprocessOpenAPI(OpenAPI openAPI) {
+    super.preprocessOpenAPI(openAPI);
+    // only the benchmark files read the example requests and samples
+    benchRequests = featureBenchmarks ? new BenchRequests(openAPI, contextPath) : null;
+    boolean responseCache = hasGetOperationExtension(openAPI, VENDOR_EXTENSION_CACHE);
+    additionalProperties.put("hasResponseCache", responseCache);
+    if (responseCache) {
+      supportingFiles.add(new SupportingFile("cache.mustache", packageRootDir, "cache.py"));
+      supportingFiles.add(new SupportingFile("cache_test.mustache", testsDir, "test_cache.py"));
+    }
+    boolean concurrencyLimits = maxConcurrency > 0 || hasOperationExtension(openAPI, VENDOR_EXTENSION_MAX_CONCURRENCY);
+    additionalProperties.put("hasConcurrencyLimits", concurrencyLimits);
+    if (concurrencyLimits) {
+      supportingFiles.add(new SupportingFile("limits.mustache", packageRootDir, "limits.py"));
+      supportingFiles.add(new SupportingFile("limits_test.mustache", testsDir, "test_limits.py"));
+    }
+    boolean deadlines = requestTimeoutMs > 0 || hasOperationExtension(openAPI, VENDOR_EXTENSION_TIMEOUT);
+    additionalProperties.put("hasDeadlines", deadlines);
+    if (deadlines) {
+      supportingFiles.add(new SupportingFile("deadlines.mustache", packageRootDir, "deadlines.py"));
+      supportingFiles.add(new SupportingFile("deadlines_test.mustache", testsDir, "test_deadlines.py"));
+    }
+    boolean coalescing = hasGetOperationExtension(openAPI, VENDOR_EXTENSION_COALESCE);
+    additionalProperties.put("hasCoalescing", coalescing);
+    if (coalescing) {
+      supportingFiles.add(new SupportingFile("singleflight.mustache", packageRootDir, "singleflight.py"));
+      supportingFiles.add(new SupportingFile("singleflight_test.mustache", testsDir, "test_singleflight.py"));
+    }
+  }
+
+  private boolean hasOperationExtension(OpenAPI openAPI, String extension) {
+    if (openAPI == null || openAPI.getPaths() == null) {
+      return false;
+    }
+    for (PathItem pathItem : openAPI.getPaths().values()) {
+      for (Operation operation : pathItem.readOperations()) {
+        if (operation.getExtensions() != null && operation.getExtensions().containsKey(extension)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean hasGetOperationExtension(OpenAPI openAPI, String extension) {
+    if (openAPI == null || openAPI.getPaths() == null) {
+      return false;
+    }
+    for (PathItem pathItem : openAPI.getPaths().values()) {
+      Operation get = pathItem.getGet();
+      if (get != null && get.getExtensions() != null && get.getExtensions().containsKey(extension)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public String toModelImport(String name) {
     return toRelativeImport(super.toModelImport(name));
@@ -160,42 +490,171 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     operationsMap.put("handlerClassName", handlerClassName);
     operationsMap.put("handlerModule", handlerModule);
     operationsMap.put("handlerAttributeName", handlerAttributeName);
+    Object classFilename = operationsMap.get("classFilename");
+    operationsMap.put("controllerModule",
+      (classFilename != null ? classFilename.toString() : underscore(classname)) + "_controller");
 
     Object opsObject = operationMap.get("operation");
     if (!(opsObject instanceof List)) {
       return;
     }
-    List<CodegenOperation> operations = (List<CodegenOperation>) opsObject;
-    for (CodegenOperation operation : operations) {
-      annotateOperation(operationsMap, operation);
+    List<CodegenOperation> operations = new ArrayList<>();
+    for (CodegenOperation operation : (List<CodegenOperation>) opsObject) {
+      if (operation != null) {
+        if (operation.vendorExtensions == null) {
+          operation.vendorExtensions = new HashMap<>();
+        }
+        operations.add(operation);
+      }
     }
+    List<OperationAnnotations> annotations = mapConcurrently(operations, this::computeOperationAnnotations);
+    boolean cachedOperations = false;
+    boolean limitedOperations = false;
+    boolean deadlineOperations = false;
+    boolean coalescedOperations = false;
+    Set<String> knownImports = new HashSet<>();
+    if (operationsMap.getImports() != null) {
+      for (Map<String, String> existing : operationsMap.getImports()) {
+        if (existing != null && existing.get("import") != null) {
+          knownImports.add(existing.get("import"));
+        }
+      }
+    }
+    // applied in declaration order so vendor extensions and imports never depend on thread scheduling
+    for (int index = 0; index < operations.size(); index++) {
+      OperationAnnotations annotation = annotations.get(index);
+      CodegenOperation operation = operations.get(index);
+      operation.vendorExtensions.putAll(annotation.extensions);
+      cachedOperations |= annotation.extensions.containsKey("x-response-cache");
+      limitedOperations |= annotation.extensions.containsKey("x-concurrency-limit");
+      deadlineOperations |= annotation.extensions.containsKey("x-deadline");
+      coalescedOperations |= annotation.extensions.containsKey("x-coalesce-settings");
+      if (annotation.streamBody) {
+        operation.bodyParam.vendorExtensions.put("x-stream-body", true);
+      } else if (operation.bodyParam != null && annotation.extensions.containsKey("x-offload-policy")) {
+        Map<String, Object> decoder = new HashMap<>();
+        decoder.put("function", "_decode_" + operation.operationId + "_body");
+        decoder.put("policy", ((Map<?, ?>) annotation.extensions.get("x-offload-policy")).get("name"));
+        operation.bodyParam.vendorExtensions.put("x-offload-decoder", decoder);
+      }
+      if (operation.bodyParam != null && annotation.extensions.containsKey("x-body-size-limit")) {
+        // read from the body parameter section of the controller
+        operation.bodyParam.vendorExtensions.put("x-body-size-limit", annotation.extensions.get("x-body-size-limit"));
+      }
+      for (CodegenParameter parameter : operation.formParams) {
+        parameter.vendorExtensions.put("x-py-name-literal", PythonLiterals.string(parameter.baseName));
+      }
+      if (annotation.extensions.containsKey("x-body-size-limit") && clientMaxSize > 0) {
+        // the application wide client_max_size must not undercut the limits of the spec
+        clientMaxSize = Math.max(clientMaxSize, (Long) annotation.extensions.get("x-body-size-limit"));
+      }
+      registerResponseImports(operationsMap, knownImports, annotation.variants);
+    }
+    operationsMap.put("hasCachedOperations", cachedOperations);
+    operationsMap.put("hasLimitedOperations", limitedOperations);
+    operationsMap.put("hasDeadlineOperations", deadlineOperations);
+    operationsMap.put("hasCoalescedOperations", coalescedOperations);
+    additionalProperties.put("clientMaxSize", clientMaxSize);
   }
 
-  private void annotateOperation(OperationsMap operationsMap, CodegenOperation operation) {
-    if (operation == null) {
-      return;
+  /*
+   * Reads the operation only; the result is applied by annotateOperations.
+   */
+  private OperationAnnotations computeOperationAnnotations(CodegenOperation operation) {
+    Map<String, Object> extensions = new HashMap<>();
+    List<ResponseVariant> variants = buildResponseVariants(operation);
+    extensions.put("x-handler-parameters", buildHandlerParameters(operation, extensions));
+    Map<String, Object> parser = buildParameterParser(operation);
+    if (parser != null) {
+      extensions.put("x-param-parser", parser);
     }
-    if (operation.vendorExtensions == null) {
-      operation.vendorExtensions = new HashMap<>();
+    Map<String, Object> cache = resolveResponseCache(operation, parser != null);
+    if (cache != null) {
+      extensions.put("x-response-cache", cache);
+    }
+    Map<String, Object> compression = resolveCompression(operation);
+    if (compression != null) {
+      extensions.put("x-compression-settings", compression);
+    }
+    Map<String, Object> offload = resolveOffload(operation);
+    if (offload != null) {
+      extensions.put("x-offload-policy", offload);
+    }
+    Map<String, Object> limit = resolveConcurrencyLimit(operation);
+    if (limit != null) {
+      extensions.put("x-concurrency-limit", limit);
+    }
+    Map<String, Object> deadline = resolveDeadline(operation);
+    if (deadline != null) {
+      extensions.put("x-deadline", deadline);
+    }
+    Map<String, Object> coalesce = resolveCoalescing(operation);
+    if (coalesce != null) {
+      extensions.put("x-coalesce-settings", coalesce);
+    }
+    if (deadline != null || coalesce != null) {
+      extensions.put("x-split-handler", true);
+    }
+    Map<String, Object> benchRequest = benchRequests == null ? null : benchRequests.describe(operation);
+    if (benchRequest != null) {
+      extensions.put("x-bench-request", benchRequest);
     }
-    List<ResponseVariant> variants = buildResponseVariants(operation);
-    operation.vendorExtensions.put("x-handler-parameters", buildHandlerParameters(operation));
     SuccessResponseMeta success = determineSuccessResponse(operation);
     if (success != null) {
-      operation.vendorExtensions.put("x-success-status-code", success.statusCode);
+      extensions.put("x-success-status-code", success.statusCode);
       if (StringUtils.isNotBlank(success.responseClass)) {
-        operation.vendorExtensions.put("x-success-response-class", success.responseClass);
+        extensions.put("x-success-response-class", success.responseClass);
       }
     }
     if (!variants.isEmpty()) {
-      operation.vendorExtensions.put("x-response-variants", toVariantMaps(variants));
+      extensions.put("x-response-variants", toVariantMaps(variants));
+    }
+    extensions.put("x-response-spec", "_" + operation.operationId.toUpperCase(Locale.ROOT) + "_RESPONSE");
+    extensions.put("x-handler-result-type", resolveHandlerResultType(variants));
+    Map<String, Object> streaming = determineStreaming(operation);
+    if (streaming != null) {
+      extensions.put("x-stream-response", streaming);
+    }
+    extensions.put("x-default-status-code", success != null ? success.statusCode : 200);
+    if (success != null && isModelClass(success.responseClass)) {
+      extensions.put("x-default-response-class", success.responseClass);
+    }
+    boolean streamBody = operation.bodyParam != null && isBinaryParameter(operation.bodyParam);
+    if (featureBatch && !streamBody && !extensions.containsKey("x-multipart-stream")
+      && operation.formParams.isEmpty()) {
+      extensions.put("x-batch", buildBatchEntry(operation));
     }
-    operation.vendorExtensions.put("x-handler-result-type", resolveHandlerResultType(variants));
-    operation.vendorExtensions.put("x-default-status-code", success != null ? success.statusCode : 200);
-    if (success != null && StringUtils.isNotBlank(success.responseClass)) {
-      operation.vendorExtensions.put("x-default-response-class", success.responseClass);
+    return new OperationAnnotations(extensions, variants, streamBody);
+  }
+
+  /*
+   * How batch.py turns the `params` of a batch item into the path, query, header and cookie
+   * values the parameter parser of the operation reads. Operations with a streamed request
+   * body or form data are left out of batches; streamed responses are collected instead.
+   */
+  private Map<String, Object> buildBatchEntry(CodegenOperation operation) {
+    List<Map<String, String>> parameters = new ArrayList<>();
+    for (CodegenParameter parameter : operation.allParams) {
+      String location = parameter.isPathParam ? "path" : parameter.isQueryParam ? "query"
+        : parameter.isHeaderParam ? "header" : parameter.isCookieParam ? "cookie" : null;
+      if (location == null) {
+        continue;
+      }
+      // arrays are joined with their delimiter, exploded query arrays repeat the parameter
+      String delimiter = !parameter.isArray || ("query".equals(location) && parameter.isExplode) ? ""
+        : parameter.isSpaceDelimited ? " " : parameter.isPipeDelimited ? "|" : ",";
+      Map<String, String> entry = new HashMap<>();
+      entry.put("name", PythonLiterals.string(parameter.baseName));
+      entry.put("location", location);
+      entry.put("delimiter", PythonLiterals.string(delimiter));
+      parameters.add(entry);
+    }
+    Map<String, Object> entry = new HashMap<>();
+    entry.put("parameters", parameters);
+    if (operation.operationIdOriginal != null && !operation.operationIdOriginal.equals(operation.operationId)) {
+      entry.put("alias", PythonLiterals.string(operation.operationIdOriginal));
     }
-    registerResponseImports(operationsMap, variants);
+    return entry;
   }
 
   private void adjustOperationImports(OperationsMap operationsMap) {
@@ -214,18 +673,552 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     }
   }
 
-  private List<Map<String, Object>> buildHandlerParameters(CodegenOperation operation) {
+  private List<Map<String, Object>> buildHandlerParameters(CodegenOperation operation, Map<String, Object> extensions) {
     List<Map<String, Object>> params = new ArrayList<>();
     addParameters(params, operation.pathParams, false);
     addParameters(params, operation.queryParams, false);
     addParameters(params, operation.headerParams, false);
     addParameters(params, operation.cookieParams, false);
+    if (hasBinaryFormParams(operation)) {
+      // file uploads are handed over as the raw multipart stream instead of a buffered form
+      extensions.put("x-multipart-stream", true);
+      params.add(streamParam(MULTIPART_PARAM_NAME, "MultipartReader", "Streaming reader over the multipart body parts"));
+    } else {
+      addParameters(params, operation.formParams, true);
+    }
     if (operation.bodyParam != null) {
-      params.add(toHandlerParam(operation.bodyParam, true));
+      if (isBinaryParameter(operation.bodyParam)) {
+        params.add(streamParam(operation.bodyParam.paramName, "StreamReader", operation.bodyParam.description));
+      } else {
+        params.add(toHandlerParam(operation.bodyParam, true));
+      }
+    }
+    Long maxBodySize = resolveMaxBodySize(operation);
+    if (maxBodySize != null) {
+      extensions.put("x-body-size-limit", maxBodySize);
     }
     return params;
   }
 
+  /*
+   * Path, query, header and cookie parameters are compiled into one parser function per
+   * operation. Conversions and checks are rendered as python statements operating on `value`;
+   * enum sets and regexes become module-level constants so nothing is rebuilt per request.
+   */
+  private Map<String, Object> buildParameterParser(CodegenOperation operation) {
+    String constantPrefix = "_" + operation.operationId.toUpperCase(Locale.ROOT);
+    List<Map<String, Object>> parameters = new ArrayList<>();
+    List<Map<String, String>> constants = new ArrayList<>();
+    addParsedParameters(parameters, constants, constantPrefix, operation.pathParams, "path", "path");
+    addParsedParameters(parameters, constants, constantPrefix, operation.queryParams, "query", "query");
+    addParsedParameters(parameters, constants, constantPrefix, operation.headerParams, "headers", "header");
+    addParsedParameters(parameters, constants, constantPrefix, operation.cookieParams, "cookies", "cookie");
+    if (parameters.isEmpty()) {
+      return null;
+    }
+    Map<String, Object> parser = new HashMap<>();
+    parser.put("functionName", "_parse_" + operation.operationId + "_params");
+    parser.put("parameters", parameters);
+    if (!constants.isEmpty()) {
+      parser.put("constants", constants);
+    }
+    return parser;
+  }
+
+  private void addParsedParameters(List<Map<String, Object>> target, List<Map<String, String>> constants,
+                                   String constantPrefix, List<CodegenParameter> source, String mapping,
+                                   String location) {
+    if (source == null) {
+      return;
+    }
+    for (CodegenParameter parameter : source) {
+      target.add(toParsedParameter(parameter, constants, constantPrefix, mapping, location));
+    }
+  }
+
+  private Map<String, Object> toParsedParameter(CodegenParameter parameter, List<Map<String, String>> constants,
+                                                String constantPrefix, String mapping, String location) {
+    String nameLiteral = PythonLiterals.string(parameter.baseName);
+    String errorArgs = nameLiteral + ", " + PythonLiterals.string(location);
+    String constantBase = constantPrefix + "_" + parameter.paramName.toUpperCase(Locale.ROOT);
+    List<String> checks = new ArrayList<>();
+    String convert;
+    String getter = mapping + ".get(" + nameLiteral + ")";
+
+    if (parameter.isArray) {
+      if ("query".equals(location) && parameter.isExplode) {
+        getter = mapping + ".getall(" + nameLiteral + ", None)";
+      }
+      String delimiter = parameter.isSpaceDelimited ? " " : parameter.isPipeDelimited ? "|" : ",";
+      convert = "_params.split(value, '" + delimiter + "')";
+      CodegenProperty items = parameter.items;
+      String itemConverter = items != null ? scalarConverter(scalarKind(items), "item", errorArgs) : null;
+      if (itemConverter != null) {
+        convert = "[" + itemConverter + " for item in " + convert + "]";
+      }
+      if (parameter.minItems != null || parameter.maxItems != null) {
+        checks.add("_params.check_length(value, " + errorArgs + ", " + literalOrNone(parameter.minItems) + ", "
+          + literalOrNone(parameter.maxItems) + ")");
+      }
+      Map<String, Object> allowable = items != null && items.allowableValues != null
+        ? items.allowableValues
+        : parameter.allowableValues;
+      String allowed = enumSetLiteral(allowable, items == null || items.isString, false);
+      if (allowed != null) {
+        constants.add(constant(constantBase + "_VALUES", allowed));
+        checks.add("_params.check_items_enum(value, " + constantBase + "_VALUES, " + errorArgs + ")");
+      }
+    } else {
+      convert = scalarConverter(scalarKind(parameter), "value", errorArgs);
+      String allowed = parameter.isEnum ? enumSetLiteral(parameter.allowableValues, parameter.isString, false) : null;
+      if (allowed != null) {
+        constants.add(constant(constantBase + "_VALUES", allowed));
+        checks.add("_params.check_enum(value, " + constantBase + "_VALUES, " + errorArgs + ")");
+      }
+      if (parameter.minimum != null || parameter.maximum != null) {
+        checks.add("_params.check_range(value, " + errorArgs + ", " + StringUtils.defaultString(parameter.minimum, "None")
+          + ", " + StringUtils.defaultString(parameter.maximum, "None") + ", "
+          + pythonBoolean(parameter.exclusiveMinimum) + ", " + pythonBoolean(parameter.exclusiveMaximum) + ")");
+      }
+      if (parameter.minLength != null || parameter.maxLength != null) {
+        checks.add("_params.check_length(value, " + errorArgs + ", " + literalOrNone(parameter.minLength) + ", "
+          + literalOrNone(parameter.maxLength) + ")");
+      }
+      String regex = compiledRegexLiteral(parameter.vendorExtensions);
+      if (regex != null) {
+        constants.add(constant(constantBase + "_PATTERN", regex));
+        checks.add("_params.check_pattern(value, " + constantBase + "_PATTERN, " + errorArgs + ")");
+      }
+    }
+
+    Map<String, Object> descriptor = new HashMap<>();
+    descriptor.put("paramName", parameter.paramName);
+    descriptor.put("nameLiteral", nameLiteral);
+    descriptor.put("location", location);
+    descriptor.put("getter", getter);
+    descriptor.put("required", Boolean.TRUE.equals(parameter.required));
+    descriptor.put("defaultValue", StringUtils.defaultIfBlank(parameter.defaultValue, "None"));
+    if (convert != null) {
+      descriptor.put("convert", convert);
+    }
+    if (!checks.isEmpty()) {
+      descriptor.put("checks", checks);
+    }
+    return descriptor;
+  }
+
+  private String scalarKind(CodegenParameter parameter) {
+    return scalarKind(parameter.isInteger || parameter.isLong || parameter.isShort || parameter.isUnboundedInteger,
+      parameter.isNumber || parameter.isFloat || parameter.isDouble || parameter.isDecimal,
+      parameter.isBoolean, parameter.isDate, parameter.isDateTime, parameter.isUuid);
+  }
+
+  private String scalarKind(CodegenProperty property) {
+    return scalarKind(property.isInteger || property.isLong || property.isShort || property.isUnboundedInteger,
+      property.isNumber || property.isFloat || property.isDouble || property.isDecimal,
+      property.isBoolean, property.isDate, property.isDateTime, property.isUuid);
+  }
+
+  private String scalarKind(boolean isInteger, boolean isNumber, boolean isBoolean, boolean isDate,
+                            boolean isDateTime, boolean isUuid) {
+    if (isInteger) {
+      return "int";
+    }
+    if (isNumber) {
+      return "float";
+    }
+    if (isBoolean) {
+      return "bool";
+    }
+    if (isDate) {
+      return "date";
+    }
+    if (isDateTime) {
+      return "datetime";
+    }
+    if (isUuid) {
+      return "uuid";
+    }
+    return null;
+  }
+
+  private String scalarConverter(String kind, String value, String errorArgs) {
+    if (kind == null) {
+      return null;
+    }
+    return "_params.to_" + kind + "(" + value + ", " + errorArgs + ")";
+  }
+
+  private String enumSetLiteral(Map<String, Object> allowableValues, boolean quote, boolean nullable) {
+    if (allowableValues == null || !(allowableValues.get("values") instanceof List)) {
+      return null;
+    }
+    List<?> values = (List<?>) allowableValues.get("values");
+    if (values.isEmpty()) {
+      return null;
+    }
+    List<String> literals = new ArrayList<>();
+    if (nullable) {
+      literals.add("None");
+    }
+    for (Object value : values) {
+      literals.add(quote ? PythonLiterals.string(String.valueOf(value)) : String.valueOf(value));
+    }
+    return "frozenset((" + String.join(", ", literals) + (literals.size() == 1 ? ",))" : "))");
+  }
+
+  private String compiledRegexLiteral(Map<String, Object> vendorExtensions) {
+    Object regex = vendorExtensions != null ? vendorExtensions.get("x-regex") : null;
+    if (regex == null || StringUtils.isBlank(regex.toString())) {
+      return null;
+    }
+    // an escaped plain literal; a raw string cannot hold every pattern
+    StringBuilder literal = new StringBuilder("re.compile(").append(PythonLiterals.string(regex.toString()));
+    Object modifiers = vendorExtensions.get("x-modifiers");
+    if (modifiers instanceof List && !((List<?>) modifiers).isEmpty()) {
+      List<String> flags = new ArrayList<>();
+      for (Object modifier : (List<?>) modifiers) {
+        flags.add("re." + modifier);
+      }
+      literal.append(", ").append(String.join(" | ", flags));
+    }
+    return literal.append(")").toString();
+  }
+
+  private Map<String, String> constant(String name, String value) {
+    Map<String, String> constant = new HashMap<>();
+    constant.put("name", name);
+    constant.put("value", value);
+    return constant;
+  }
+
+  private String literalOrNone(Integer value) {
+    return value != null ? value.toString() : "None";
+  }
+
+  private String pythonBoolean(boolean value) {
+    return value ? "True" : "False";
+  }
+
+  private boolean hasBinaryFormParams(CodegenOperation operation) {
+    if (operation.formParams == null) {
+      return false;
+    }
+    for (CodegenParameter parameter : operation.formParams) {
+      if (isBinaryParameter(parameter)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isBinaryParameter(CodegenParameter parameter) {
+    return parameter.isBinary || parameter.isFile;
+  }
+
+  private Map<String, Object> streamParam(String name, String pythonType, String description) {
+    Map<String, Object> descriptor = new HashMap<>();
+    descriptor.put("paramName", name);
+    descriptor.put("pythonType", pythonType);
+    descriptor.put("required", true);
+    descriptor.put("description", description);
+    descriptor.put("isBody", true);
+    return descriptor;
+  }
+
+  /*
+   * `x-cache: {ttl: 30, maxEntries: 10000, maxBytes: 16777216}`, or `x-cache: true` for the
+   * defaults, keeps the encoded 200 responses of a GET operation in an in-process cache keyed
+   * by the parsed parameters (see cache.py).
+   */
+  private Map<String, Object> resolveResponseCache(CodegenOperation operation, boolean hasParameters) {
+    Object extension = operation.vendorExtensions.get(VENDOR_EXTENSION_CACHE);
+    if (extension == null || "false".equals(extension.toString())) {
+      return null;
+    }
+    if (!"GET".equalsIgnoreCase(operation.httpMethod)) {
+      LOGGER.warn("Ignoring {} on operation {}: only GET responses are cached", VENDOR_EXTENSION_CACHE,
+        operation.operationId);
+      return null;
+    }
+    Map<?, ?> settings = extension instanceof Map ? (Map<?, ?>) extension : Collections.emptyMap();
+    BigDecimal ttl = positiveNumber(settings.get("ttl"), DEFAULT_CACHE_TTL);
+    BigDecimal maxEntries = positiveNumber(settings.get("maxEntries"), Long.toString(DEFAULT_CACHE_MAX_ENTRIES));
+    BigDecimal maxBytes = positiveNumber(settings.get("maxBytes"), Long.toString(DEFAULT_CACHE_MAX_BYTES));
+    boolean valid = extension instanceof Map || "true".equals(extension.toString());
+    if (!valid || ttl == null || !isWholeNumber(maxEntries) || !isWholeNumber(maxBytes)) {
+      LOGGER.warn("Ignoring invalid {} '{}' on operation {}", VENDOR_EXTENSION_CACHE, extension, operation.operationId);
+      return null;
+    }
+    Map<String, Object> descriptor = new HashMap<>();
+    descriptor.put("name", "_" + operation.operationId.toUpperCase(Locale.ROOT) + "_CACHE");
+    descriptor.put("ttl", ttl.stripTrailingZeros().toPlainString());
+    descriptor.put("maxEntries", maxEntries.toBigInteger().toString());
+    descriptor.put("maxBytes", maxBytes.toBigInteger().toString());
+    descriptor.put("keyArgument", hasParameters ? "params" : "None");
+    // secured responses are cached per caller
+    descriptor.put("credentials", credentialsArgument(operation));
+    return descriptor;
+  }
+
+  /*
+   * With featureCompression, `x-compression: false` leaves the responses of an operation
+   * uncompressed and `x-compression: {minSize: 256, level: 9}` overrides the global settings.
+   */
+  private Map<String, Object> resolveCompression(CodegenOperation operation) {
+    Object extension = operation.vendorExtensions.get(VENDOR_EXTENSION_COMPRESSION);
+    if (!featureCompression || extension == null) {
+      return null;
+    }
+    Map<String, Object> descriptor = new HashMap<>();
+    if ("false".equals(extension.toString())) {
+      descriptor.put("enabled", false);
+      return descriptor;
+    }
+    Map<?, ?> settings = extension instanceof Map ? (Map<?, ?>) extension : Collections.emptyMap();
+    Object minSizeValue = settings.get("minSize");
+    BigDecimal minSize = "0".equals(String.valueOf(minSizeValue)) ? BigDecimal.ZERO
+      : positiveNumber(minSizeValue, Integer.toString(compressionMinSize));
+    BigDecimal level = positiveNumber(settings.get("level"), Integer.toString(compressionLevel));
+    boolean valid = extension instanceof Map || "true".equals(extension.toString());
+    if (!valid || !isWholeNumber(minSize) || !isWholeNumber(level) || level.intValue() > 9) {
+      LOGGER.warn("Ignoring invalid {} '{}' on operation {}", VENDOR_EXTENSION_COMPRESSION, extension,
+        operation.operationId);
+      return null;
+    }
+    descriptor.put("enabled", true);
+    descriptor.put("minSize", minSize.toBigInteger().toString());
+    descriptor.put("level", level.toBigInteger().toString());
+    return descriptor;
+  }
+
+  /*
+   * With featureOffload every operation gets an offload.Policy; `x-offload: true` or `false`
+   * replaces its size based decision.
+   */
+  private Map<String, Object> resolveOffload(CodegenOperation operation) {
+    if (!featureOffload) {
+      return null;
+    }
+    Object extension = operation.vendorExtensions.get(VENDOR_EXTENSION_OFFLOAD);
+    String arguments = "";
+    if (extension != null) {
+      String value = extension.toString().trim().toLowerCase(Locale.ROOT);
+      if ("true".equals(value) || "false".equals(value)) {
+        arguments = ", always=" + StringUtils.capitalize(value);
+      } else {
+        LOGGER.warn("Ignoring invalid {} '{}' on operation {}", VENDOR_EXTENSION_OFFLOAD, extension,
+          operation.operationId);
+      }
+    }
+    Map<String, Object> descriptor = new HashMap<>();
+    descriptor.put("name", "_" + operation.operationId.toUpperCase(Locale.ROOT) + "_OFFLOAD");
+    descriptor.put("arguments", arguments);
+    return descriptor;
+  }
+
+  /*
+   * `x-max-concurrency: 64` admits at most 64 concurrent requests of the operation, counted until
+   * their response is written, and `x-queue-timeout-ms: 50` bounds how long further requests wait
+   * before the 503 (see limits.py). Both default to the global options; `x-max-concurrency: 0` lifts the limit.
+   */
+  private Map<String, Object> resolveConcurrencyLimit(CodegenOperation operation) {
+    Object limitExtension = operation.vendorExtensions.get(VENDOR_EXTENSION_MAX_CONCURRENCY);
+    Object timeoutExtension = operation.vendorExtensions.get(VENDOR_EXTENSION_QUEUE_TIMEOUT);
+    BigDecimal limit = BigDecimal.valueOf(maxConcurrency);
+    if (limitExtension != null) {
+      limit = "0".equals(limitExtension.toString().trim()) ? BigDecimal.ZERO : positiveNumber(limitExtension, null);
+      if (!isWholeNumber(limit)) {
+        LOGGER.warn("Ignoring invalid {} '{}' on operation {}", VENDOR_EXTENSION_MAX_CONCURRENCY, limitExtension,
+          operation.operationId);
+        limit = BigDecimal.valueOf(maxConcurrency);
+      }
+    }
+    if (limit.signum() == 0) {
+      if (timeoutExtension != null) {
+        LOGGER.warn("Ignoring {} on operation {}: it has no concurrency limit", VENDOR_EXTENSION_QUEUE_TIMEOUT,
+          operation.operationId);
+      }
+      return null;
+    }
+    BigDecimal timeout = BigDecimal.valueOf(queueTimeoutMs);
+    if (timeoutExtension != null) {
+      timeout = "0".equals(timeoutExtension.toString().trim()) ? BigDecimal.ZERO
+        : positiveNumber(timeoutExtension, null);
+      if (timeout == null) {
+        LOGGER.warn("Ignoring invalid {} '{}' on operation {}", VENDOR_EXTENSION_QUEUE_TIMEOUT, timeoutExtension,
+          operation.operationId);
+        timeout = BigDecimal.valueOf(queueTimeoutMs);
+      }
+    }
+    Map<String, Object> descriptor = new HashMap<>();
+    descriptor.put("name", "_" + operation.operationId.toUpperCase(Locale.ROOT) + "_LIMIT");
+    descriptor.put("maxConcurrency", limit.toBigInteger().toString());
+    descriptor.put("queueTimeout", timeout.movePointLeft(3).stripTrailingZeros().toPlainString());
+    return descriptor;
+  }
+
+  /*
+   * `x-timeout-ms: 2000` runs parameter parsing, body reading and the handler call of the
+   * operation under a deadline that incoming deadline headers may only shorten (see
+   * deadlines.py). It defaults to the requestTimeoutMs option; `x-timeout-ms: 0` lifts it.
+   */
+  private Map<String, Object> resolveDeadline(CodegenOperation operation) {
+    Object extension = operation.vendorExtensions.get(VENDOR_EXTENSION_TIMEOUT);
+    BigDecimal timeout = BigDecimal.valueOf(requestTimeoutMs);
+    if (extension != null) {
+      BigDecimal declared = "0".equals(extension.toString().trim()) ? BigDecimal.ZERO
+        : positiveNumber(extension, null);
+      if (declared == null) {
+        LOGGER.warn("Ignoring invalid {} '{}' on operation {}", VENDOR_EXTENSION_TIMEOUT, extension,
+          operation.operationId);
+      } else {
+        timeout = declared;
+      }
+    }
+    if (timeout.signum() == 0) {
+      return null;
+    }
+    Map<String, Object> descriptor = new HashMap<>();
+    descriptor.put("timeout", timeout.movePointLeft(3).stripTrailingZeros().toPlainString());
+    descriptor.put("timeoutMs", timeout.stripTrailingZeros().toPlainString());
+    return descriptor;
+  }
+
+  /*
+   * `x-coalesce: true` lets concurrent GET requests with the same path, query, header and cookie
+   * parameters share one handler call and its encoded response (see singleflight.py).
+   * `x-coalesce: {headers: [Accept-Language]}` adds headers the response depends on; the
+   * credentials of the security schemes of the operation are always part of the key.
+   */
+  private Map<String, Object> resolveCoalescing(CodegenOperation operation) {
+    Object extension = operation.vendorExtensions.get(VENDOR_EXTENSION_COALESCE);
+    if (extension == null || "false".equals(extension.toString())) {
+      return null;
+    }
+    if (!"GET".equalsIgnoreCase(operation.httpMethod)) {
+      LOGGER.warn("Ignoring {} on operation {}: only GET requests are coalesced", VENDOR_EXTENSION_COALESCE,
+        operation.operationId);
+      return null;
+    }
+    Object declared = extension instanceof Map ? ((Map<?, ?>) extension).get("headers") : null;
+    boolean valid = extension instanceof Map ? declared == null || declared instanceof List
+      : "true".equals(extension.toString());
+    if (!valid) {
+      LOGGER.warn("Ignoring invalid {} '{}' on operation {}", VENDOR_EXTENSION_COALESCE, extension,
+        operation.operationId);
+      return null;
+    }
+    Set<String> headers = new LinkedHashSet<>();
+    Set<String> cookies = new LinkedHashSet<>();
+    for (CodegenParameter parameter : operation.headerParams) {
+      headers.add(parameter.baseName.toLowerCase(Locale.ROOT));
+    }
+    for (CodegenParameter parameter : operation.cookieParams) {
+      cookies.add(parameter.baseName);
+    }
+    if (declared != null) {
+      for (Object header : (List<?>) declared) {
+        headers.add(String.valueOf(header).toLowerCase(Locale.ROOT));
+      }
+    }
+    if (operation.vendorExtensions.containsKey(VENDOR_EXTENSION_CACHE)) {
+      // a cached operation answers 304 to matching If-None-Match headers
+      headers.add("if-none-match");
+    }
+    Map<String, Object> descriptor = new HashMap<>();
+    descriptor.put("name", "_" + operation.operationId.toUpperCase(Locale.ROOT) + "_FLIGHTS");
+    descriptor.put("headers", PythonLiterals.tuple(headers));
+    descriptor.put("cookies", PythonLiterals.tuple(cookies));
+    // secured calls are shared per caller
+    descriptor.put("credentials", credentialsArgument(operation));
+    return descriptor;
+  }
+
+  /*
+   * Where the credentials of the security schemes of an operation travel, as (location, name)
+   * pairs with lower-cased header names; responses of secured operations depend on them.
+   */
+  private List<Map.Entry<String, String>> credentialInputs(CodegenOperation operation) {
+    Set<Map.Entry<String, String>> inputs = new LinkedHashSet<>();
+    if (operation.authMethods != null) {
+      for (CodegenSecurity security : operation.authMethods) {
+        if (Boolean.TRUE.equals(security.isKeyInHeader)) {
+          inputs.add(new AbstractMap.SimpleImmutableEntry<>("header", security.keyParamName.toLowerCase(Locale.ROOT)));
+        } else if (Boolean.TRUE.equals(security.isKeyInCookie)) {
+          inputs.add(new AbstractMap.SimpleImmutableEntry<>("cookie", security.keyParamName));
+        } else if (Boolean.TRUE.equals(security.isKeyInQuery)) {
+          inputs.add(new AbstractMap.SimpleImmutableEntry<>("query", security.keyParamName));
+        } else {
+          inputs.add(new AbstractMap.SimpleImmutableEntry<>("header", "authorization"));
+        }
+      }
+    }
+    return new ArrayList<>(inputs);
+  }
+
+  /*
+   * The `credentials=` keyword argument of a ResponseCache or SingleFlight, empty for operations
+   * without security requirements.
+   */
+  private String credentialsArgument(CodegenOperation operation) {
+    List<String> credentials = new ArrayList<>();
+    for (Map.Entry<String, String> credential : credentialInputs(operation)) {
+      credentials.add("(" + PythonLiterals.string(credential.getKey()) + ", "
+        + PythonLiterals.string(credential.getValue()) + ")");
+    }
+    return credentials.isEmpty() ? ""
+      : ", credentials=(" + String.join(", ", credentials) + (credentials.size() == 1 ? ",)" : ")");
+  }
+
+  private BigDecimal positiveNumber(Object value, String defaultValue) {
+    try {
+      BigDecimal number = new BigDecimal(value == null ? defaultValue : value.toString().trim());
+      return number.signum() > 0 ? number : null;
+    } catch (NumberFormatException ex) {
+      return null;
+    }
+  }
+
+  private boolean isWholeNumber(BigDecimal number) {
+    return number != null && number.stripTrailingZeros().scale() <= 0;
+  }
+
+  /*
+   * The request size limit comes from the `x-max-body-size` vendor extension, or from the
+   * maxLength of a binary body. Multipart uploads use the sum of the file parts maxLength
+   * plus an allowance for the remaining fields when every file part declares one.
+   */
+  private Long resolveMaxBodySize(CodegenOperation operation) {
+    Object extension = operation.vendorExtensions.get(VENDOR_EXTENSION_MAX_BODY_SIZE);
+    if (extension != null) {
+      try {
+        return Long.parseLong(extension.toString().trim());
+      } catch (NumberFormatException ex) {
+        LOGGER.warn("Ignoring invalid {} '{}' on operation {}", VENDOR_EXTENSION_MAX_BODY_SIZE, extension,
+          operation.operationId);
+        return null;
+      }
+    }
+    if (operation.bodyParam != null && operation.bodyParam.maxLength != null) {
+      return operation.bodyParam.maxLength.longValue();
+    }
+    if (!hasBinaryFormParams(operation)) {
+      return null;
+    }
+    long total = MULTIPART_FIELDS_ALLOWANCE;
+    for (CodegenParameter parameter : operation.formParams) {
+      if (!isBinaryParameter(parameter)) {
+        continue;
+      }
+      if (parameter.maxLength == null) {
+        return null;
+      }
+      total += parameter.maxLength;
+    }
+    return total;
+  }
+
   private void addParameters(List<Map<String, Object>> target, List<CodegenParameter> source, boolean isBody) {
     if (source == null) {
       return;
@@ -277,6 +1270,46 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     return new SuccessResponseMeta(200, null);
   }
 
+  /*
+   * Array-typed responses may be streamed item by item. The `x-streaming` vendor extension
+   * forces (true, "ndjson", "json") or disables (false) streaming for a single operation.
+   */
+  private Map<String, Object> determineStreaming(CodegenOperation operation) {
+    boolean producesNdjson = producesMediaType(operation, NDJSON_MEDIA_TYPE);
+    Object extension = operation.vendorExtensions.get(VENDOR_EXTENSION_STREAMING);
+    boolean ndjson = producesNdjson;
+    if (extension == null) {
+      if (!operation.isArray && !producesNdjson) {
+        return null;
+      }
+    } else {
+      String value = extension.toString().trim().toLowerCase(Locale.ROOT);
+      if ("false".equals(value)) {
+        return null;
+      }
+      if ("ndjson".equals(value)) {
+        ndjson = true;
+      } else if ("json".equals(value)) {
+        ndjson = false;
+      }
+    }
+    Map<String, Object> descriptor = new HashMap<>();
+    descriptor.put("ndjson", ndjson ? "True" : "False");
+    return descriptor;
+  }
+
+  private boolean producesMediaType(CodegenOperation operation, String mediaType) {
+    if (operation.produces == null) {
+      return false;
+    }
+    for (Map<String, String> produced : operation.produces) {
+      if (produced != null && mediaType.equalsIgnoreCase(produced.get("mediaType"))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private int parseStatusCode(String code) {
     try {
       return Integer.parseInt(code);
@@ -292,7 +1325,7 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
         types.add(variant.responseClass);
       }
     }
-    return String.join(" | ", types);
+    return types.isEmpty() ? "None" : String.join(" | ", types);
   }
 
   private List<ResponseVariant> buildResponseVariants(CodegenOperation operation) {
@@ -309,10 +1342,20 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     return variants;
   }
 
+  /*
+   * Only model classes are dispatched on and imported from the schemas package; handlers
+   * returning str, int or other primitives get the payload passed through as is.
+   */
+  private boolean isModelClass(String type) {
+    return StringUtils.isNotBlank(type) && !languageSpecificPrimitives.contains(type);
+  }
+
   private List<Map<String, Object>> toVariantMaps(List<ResponseVariant> variants) {
     List<Map<String, Object>> result = new ArrayList<>();
+    Set<String> seen = new HashSet<>();
     for (ResponseVariant variant : variants) {
-      if (StringUtils.isBlank(variant.responseClass)) {
+      // the first status declared for a class wins, as with the former isinstance scan
+      if (!isModelClass(variant.responseClass) || !seen.add(variant.responseClass)) {
         continue;
       }
       Map<String, Object> entry = new HashMap<>();
@@ -323,7 +1366,8 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     return result;
   }
 
-  private void registerResponseImports(OperationsMap operationsMap, List<ResponseVariant> variants) {
+  private void registerResponseImports(OperationsMap operationsMap, Set<String> knownImports,
+                                       List<ResponseVariant> variants) {
     if (operationsMap == null || variants == null || variants.isEmpty()) {
       return;
     }
@@ -333,22 +1377,20 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
       operationsMap.setImports(imports);
     }
     for (ResponseVariant variant : variants) {
-      if (StringUtils.isBlank(variant.responseClass)) {
+      if (!isModelClass(variant.responseClass)) {
         continue;
       }
       String importLine = toRelativeImport(String.format("from %s.%s import %s",
         modelPackage,
         underscore(variant.responseClass),
         variant.responseClass));
-      ensureImport(imports, importLine);
+      ensureImport(imports, knownImports, importLine);
     }
   }
 
-  private void ensureImport(List<Map<String, String>> imports, String importLine) {
-    for (Map<String, String> existing : imports) {
-      if (existing != null && importLine.equals(existing.get("import"))) {
-        return;
-      }
+  private void ensureImport(List<Map<String, String>> imports, Set<String> knownImports, String importLine) {
+    if (!knownImports.add(importLine)) {
+      return;
     }
     Map<String, String> entry = new HashMap<>();
     entry.put("import", importLine);
@@ -365,6 +1407,51 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     }
   }
 
+  private static class ModelAnnotations {
+    private final Map<String, Object> modelMapEntries = new HashMap<>();
+    private final Map<String, Object> modelExtensions = new HashMap<>();
+    private final List<Map<String, Object>> propertyExtensions = new ArrayList<>();
+    // dataType, datatypeWithEnum, baseType and complexType with forward references quoted
+    private final List<String[]> propertyTypes = new ArrayList<>();
+
+    private ModelAnnotations(CodegenModel model) {
+      int size = model.vars == null ? 0 : model.vars.size();
+      for (int index = 0; index < size; index++) {
+        propertyExtensions.add(new HashMap<>());
+        propertyTypes.add(null);
+      }
+    }
+
+    private void applyTo(ModelMap modelMap) {
+      CodegenModel model = modelMap.getModel();
+      modelMap.putAll(modelMapEntries);
+      model.vendorExtensions.putAll(modelExtensions);
+      for (int index = 0; index < propertyExtensions.size(); index++) {
+        CodegenProperty property = model.vars.get(index);
+        property.vendorExtensions.putAll(propertyExtensions.get(index));
+        String[] types = propertyTypes.get(index);
+        if (types != null) {
+          property.dataType = types[0];
+          property.datatypeWithEnum = types[1];
+          property.baseType = types[2];
+          property.complexType = types[3];
+        }
+      }
+    }
+  }
+
+  private static class OperationAnnotations {
+    private final Map<String, Object> extensions;
+    private final List<ResponseVariant> variants;
+    private final boolean streamBody;
+
+    private OperationAnnotations(Map<String, Object> extensions, List<ResponseVariant> variants, boolean streamBody) {
+      this.extensions = Collections.unmodifiableMap(extensions);
+      this.variants = Collections.unmodifiableList(variants);
+      this.streamBody = streamBody;
+    }
+  }
+
   private static class ResponseVariant {
     private final int statusCode;
     private final String responseClass;
@@ -375,33 +1462,64 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     }
   }
 
+  /*
+   * DefaultGenerator hands every processed model to updateAllModels before any template is
+   * rendered, so the models are annotated here all at once instead of one postProcessModels
+   * call at a time.
+   */
   @Override
-  public ModelsMap postProcessModels(ModelsMap objs) {
-    ModelsMap processed = super.postProcessModels(objs);
-    adjustModelImports(processed);
-    return processed;
+  public Map<String, ModelsMap> updateAllModels(Map<String, ModelsMap> objs) {
+    annotateModels(objs);
+    return super.updateAllModels(objs);
   }
 
-  private void adjustModelImports(ModelsMap modelsMap) {
-    if (modelsMap == null) {
-      return;
-    }
-    List<ModelMap> models = modelsMap.getModels();
-    if (models == null) {
+  private void annotateModels(Map<String, ModelsMap> modelsByName) {
+    if (modelsByName == null) {
       return;
     }
-    for (ModelMap modelMap : models) {
-      Object modelObj = modelMap.get("model");
-      if (!(modelObj instanceof CodegenModel)) {
+    List<ModelMap> modelMaps = new ArrayList<>();
+    for (ModelsMap modelsMap : modelsByName.values()) {
+      if (modelsMap == null || modelsMap.getModels() == null) {
         continue;
       }
-      CodegenModel model = (CodegenModel) modelObj;
-      populateModelImports(modelMap, model);
-      ensureForwardReferenceFriendlyTypes(model);
+      for (ModelMap modelMap : modelsMap.getModels()) {
+        if (modelMap.get("model") instanceof CodegenModel) {
+          modelMaps.add(modelMap);
+        }
+      }
+    }
+    List<ModelAnnotations> annotations = mapConcurrently(modelMaps,
+      modelMap -> computeModelAnnotations(modelMap.getModel()));
+    for (int index = 0; index < modelMaps.size(); index++) {
+      annotations.get(index).applyTo(modelMaps.get(index));
+    }
+  }
+
+  /*
+   * Reads the model only; ModelAnnotations.applyTo writes the result back.
+   */
+  private ModelAnnotations computeModelAnnotations(CodegenModel model) {
+    ModelAnnotations annotations = new ModelAnnotations(model);
+    populateModelImports(annotations, model);
+    if (model.vars == null) {
+      return annotations;
+    }
+    if (SERIALIZATION_MODE_COMPILED.equals(serializationMode)) {
+      annotateCompiledSerializers(annotations, model);
+    }
+    annotateFormatCodecs(annotations, model);
+    annotateValidation(annotations, model);
+    ensureForwardReferenceFriendlyTypes(annotations, model);
+    if (featureBenchmarks && !model.isEnum && !model.vars.isEmpty()) {
+      String sample = benchRequests == null ? null : benchRequests.sample(model.name);
+      if (sample != null) {
+        annotations.modelExtensions.put("x-bench-sample", PythonLiterals.string(sample));
+      }
     }
+    return annotations;
   }
 
-  private void populateModelImports(ModelMap modelMap, CodegenModel model) {
+  private void populateModelImports(ModelAnnotations annotations, CodegenModel model) {
     if (model.imports == null || model.imports.isEmpty()) {
       return;
     }
@@ -414,36 +1532,225 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
       entry.put("import", "from ." + underscore(dependency) + " import " + dependency);
       imports.add(entry);
     }
-    if (!imports.isEmpty()) {
-      modelMap.put("pyImports", imports);
+    if (imports.isEmpty()) {
+      return;
+    }
+    if (lazySchemas) {
+      annotations.modelMapEntries.put("pyTypeCheckingImports", Collections.singletonMap("statements", imports));
+    } else {
+      annotations.modelMapEntries.put("pyImports", imports);
     }
   }
 
-  private void ensureForwardReferenceFriendlyTypes(CodegenModel model) {
-    if (model.vars == null) {
-      return;
+  /*
+   * Compiled serialization: each property gets python expressions converting a json value
+   * named `value` into its python representation and back, derived from the codegen metadata
+   * so the generated from_dict/to_dict never inspect types at runtime.
+   */
+  private void annotateCompiledSerializers(ModelAnnotations annotations, CodegenModel model) {
+    for (int index = 0; index < model.vars.size(); index++) {
+      CodegenProperty property = model.vars.get(index);
+      Map<String, Object> extensions = annotations.propertyExtensions.get(index);
+      String fromDict = toFromDictExpression(property, "value", 0);
+      String toDict = toToDictExpression(property, "value", 0);
+      extensions.put("x-py-from-dict", fromDict);
+      extensions.put("x-py-to-dict", toDict);
+      extensions.put("x-py-from-dict-identity", "value".equals(fromDict));
+      extensions.put("x-py-to-dict-identity", "value".equals(toDict));
+    }
+  }
+
+  private void annotateFormatCodecs(ModelAnnotations annotations, CodegenModel model) {
+    for (int index = 0; index < model.vars.size(); index++) {
+      CodegenProperty property = model.vars.get(index);
+      CodegenProperty items = containerItems(property);
+      String format = formatCodec(property.isContainer && items != null ? items : property);
+      if (format != null) {
+        annotations.propertyExtensions.get(index).put("x-format-codec", format);
+      }
+    }
+  }
+
+  /*
+   * Name of the formats.py codec converting this property, keyed like the OpenAPI format.
+   */
+  private String formatCodec(CodegenProperty property) {
+    if (property.isDate) {
+      return "date";
+    }
+    if (property.isDateTime) {
+      return "date-time";
+    }
+    if (property.isUuid) {
+      return "uuid";
+    }
+    if (property.isByteArray) {
+      return "byte";
+    }
+    if (property.isBinary) {
+      return "binary";
+    }
+    return null;
+  }
+
+  /*
+   * Validation: enum sets and patterns become module-level frozensets and compiled regexes so
+   * neither the setters nor the generated _collect_errors rebuild them per call.
+   */
+  private void annotateValidation(ModelAnnotations annotations, CodegenModel model) {
+    List<Map<String, String>> constants = new ArrayList<>();
+    String prefix = "_" + underscore(model.classname).toUpperCase(Locale.ROOT) + "_";
+    for (int index = 0; index < model.vars.size(); index++) {
+      CodegenProperty property = model.vars.get(index);
+      Map<String, Object> extensions = annotations.propertyExtensions.get(index);
+      String constantPrefix = prefix + property.name.toUpperCase(Locale.ROOT);
+      boolean validated = false;
+      CodegenProperty items = containerItems(property);
+      if (property.isEnum) {
+        boolean quote = property.isContainer ? items != null && items.isString : property.isString;
+        // like the former allowed_values lists, nullable enums accept None
+        String values = enumSetLiteral(property.allowableValues, quote, property.isNullable);
+        if (values != null) {
+          String name = constantPrefix + "_VALUES";
+          constants.add(constant(name, values));
+          extensions.put("x-py-enum-constant", name);
+          validated = true;
+        }
+      }
+      String pattern = compiledRegexLiteral(property.vendorExtensions);
+      if (pattern != null) {
+        String name = constantPrefix + "_PATTERN";
+        constants.add(constant(name, pattern));
+        extensions.put("x-py-pattern-constant", name);
+      }
+      validated |= property.hasValidation;
+      if (property.isArray && items != null && isModelReference(items)) {
+        extensions.put("x-py-nested-array", true);
+        validated = true;
+      } else if (property.isMap && items != null && isModelReference(items)) {
+        extensions.put("x-py-nested-map", true);
+        validated = true;
+      } else if (!property.isContainer && isModelReference(property)) {
+        extensions.put("x-py-nested-model", true);
+        validated = true;
+      }
+      extensions.put("x-py-validated", validated);
+    }
+    if (!constants.isEmpty()) {
+      annotations.modelExtensions.put("x-py-validation-constants", constants);
+    }
+  }
+
+  private String toFromDictExpression(CodegenProperty property, String value, int depth) {
+    if (property == null) {
+      return value;
+    }
+    CodegenProperty inner = containerItems(property);
+    if (property.isArray && inner != null) {
+      String item = "x" + depth;
+      String converted = toFromDictExpression(inner, item, depth + 1);
+      return converted.equals(item) ? value : "[" + converted + " for " + item + " in " + value + "]";
+    }
+    if (property.isMap && inner != null) {
+      String item = "x" + depth;
+      String key = "k" + depth;
+      String converted = toFromDictExpression(inner, item, depth + 1);
+      return converted.equals(item)
+        ? value
+        : "{" + key + ": " + converted + " for " + key + ", " + item + " in " + value + ".items()}";
+    }
+    String format = formatCodec(property);
+    if (format != null) {
+      return "formats.decode('" + format + "', " + value + ")";
+    }
+    if (isModelReference(property)) {
+      return (lazySchemas ? "_schemas." : "") + unquote(property.complexType) + ".from_dict(" + value + ")";
+    }
+    if (COERCED_PRIMITIVES.contains(property.dataType)) {
+      // values of the exact type pass through, others are coerced as util._deserialize_primitive does
+      return "(" + value + " if type(" + value + ") is " + property.dataType
+        + " else util._deserialize_primitive(" + value + ", " + property.dataType + "))";
     }
-    for (CodegenProperty property : model.vars) {
-      property.dataType = quoteSelfReference(model.classname, property.dataType);
-      property.datatypeWithEnum = quoteSelfReference(model.classname, property.datatypeWithEnum);
-      property.baseType = quoteSelfReference(model.classname, property.baseType);
-      property.complexType = quoteSelfReference(model.classname, property.complexType);
+    return value;
+  }
+
+  private String toToDictExpression(CodegenProperty property, String value, int depth) {
+    if (property == null) {
+      return value;
+    }
+    CodegenProperty inner = containerItems(property);
+    if (property.isArray && inner != null) {
+      String item = "x" + depth;
+      String converted = toToDictExpression(inner, item, depth + 1);
+      return converted.equals(item) ? value : "[" + converted + " for " + item + " in " + value + "]";
+    }
+    if (property.isMap && inner != null) {
+      String item = "x" + depth;
+      String key = "k" + depth;
+      String converted = toToDictExpression(inner, item, depth + 1);
+      return converted.equals(item)
+        ? value
+        : "{" + key + ": " + converted + " for " + key + ", " + item + " in " + value + ".items()}";
+    }
+    String format = formatCodec(property);
+    if (format != null) {
+      return "formats.encode('" + format + "', " + value + ")";
+    }
+    if (isModelReference(property)) {
+      // like Model.to_dict, values that are not models (None items, plain dicts) pass through
+      return "(" + value + ".to_dict() if isinstance(" + value + ", Model) else " + value + ")";
+    }
+    return value;
+  }
+
+  private CodegenProperty containerItems(CodegenProperty property) {
+    return property.items != null ? property.items : property.additionalProperties;
+  }
+
+  private boolean isModelReference(CodegenProperty property) {
+    return property.isModel
+      && !property.isEnumRef
+      && !property.isFreeFormObject
+      && StringUtils.isNotBlank(property.complexType);
+  }
+
+  private String unquote(String typeExpression) {
+    return StringUtils.strip(typeExpression, "'");
+  }
+
+  private void ensureForwardReferenceFriendlyTypes(ModelAnnotations annotations, CodegenModel model) {
+    // lazy schema modules only import their dependencies for type checking, so those are quoted too
+    Set<String> references = new LinkedHashSet<>();
+    references.add(model.classname);
+    if (lazySchemas && model.imports != null) {
+      references.addAll(model.imports);
+    }
+    for (int index = 0; index < model.vars.size(); index++) {
+      CodegenProperty property = model.vars.get(index);
+      String[] types = {property.dataType, property.datatypeWithEnum, property.baseType, property.complexType};
+      for (String reference : references) {
+        for (int type = 0; type < types.length; type++) {
+          types[type] = quoteReference(reference, types[type]);
+        }
+      }
+      annotations.propertyTypes.set(index, types);
     }
   }
 
-  private String quoteSelfReference(String className, String typeExpression) {
+  private String quoteReference(String className, String typeExpression) {
     if (StringUtils.isBlank(typeExpression) || StringUtils.isBlank(className)) {
       return typeExpression;
     }
     if (!typeExpression.contains(className)) {
       return typeExpression;
     }
-    String quoted = "'" + className + "'";
+    String quoted = PythonLiterals.string(className);
     if (typeExpression.contains(quoted)) {
       return typeExpression;
     }
-    String pattern = "(?<![A-Za-z0-9_])" + Pattern.quote(className) + "(?![A-Za-z0-9_])";
-    return typeExpression.replaceAll(pattern, quoted);
+    Pattern pattern = referencePatterns.computeIfAbsent(className,
+      name -> Pattern.compile("(?<![A-Za-z0-9_])" + Pattern.quote(name) + "(?![A-Za-z0-9_])"));
+    return pattern.matcher(typeExpression).replaceAll(Matcher.quoteReplacement(quoted));
   }
 
   private String toRelativeImport(String statement) {
@@ -482,8 +1789,78 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
 
     featureCORS = resolveBooleanOpt(OPTION_FEATURE_CORS, featureCORS);
     additionalProperties.put(OPTION_FEATURE_CORS, featureCORS);
+    featureMetrics = resolveBooleanOpt(OPTION_FEATURE_METRICS, featureMetrics);
+    additionalProperties.put(OPTION_FEATURE_METRICS, featureMetrics);
+    featureCompression = resolveBooleanOpt(OPTION_FEATURE_COMPRESSION, featureCompression);
+    additionalProperties.put(OPTION_FEATURE_COMPRESSION, featureCompression);
+    compressionMinSize = resolveIntOpt(OPTION_COMPRESSION_MIN_SIZE, compressionMinSize, 0, Integer.MAX_VALUE);
+    compressionLevel = resolveIntOpt(OPTION_COMPRESSION_LEVEL, compressionLevel, 1, 9);
+    compressionExecutorSize = resolveIntOpt(OPTION_COMPRESSION_EXECUTOR_SIZE, compressionExecutorSize, 0,
+      Integer.MAX_VALUE);
+    featureOffload = resolveBooleanOpt(OPTION_FEATURE_OFFLOAD, featureOffload);
+    additionalProperties.put(OPTION_FEATURE_OFFLOAD, featureOffload);
+    offloadThreshold = resolveIntOpt(OPTION_OFFLOAD_THRESHOLD, offloadThreshold, 0, Integer.MAX_VALUE);
+    offloadWorkers = resolveIntOpt(OPTION_OFFLOAD_WORKERS, offloadWorkers, 1, 1024);
+    maxConcurrency = resolveIntOpt(OPTION_MAX_CONCURRENCY, maxConcurrency, 0, Integer.MAX_VALUE);
+    queueTimeoutMs = resolveIntOpt(OPTION_QUEUE_TIMEOUT_MS, queueTimeoutMs, 0, Integer.MAX_VALUE);
+    requestTimeoutMs = resolveIntOpt(OPTION_REQUEST_TIMEOUT_MS, requestTimeoutMs, 0, Integer.MAX_VALUE);
+    featureBatch = resolveBooleanOpt(OPTION_FEATURE_BATCH, featureBatch);
+    additionalProperties.put(OPTION_FEATURE_BATCH, featureBatch);
+    batchMaxItems = resolveIntOpt(OPTION_BATCH_MAX_ITEMS, batchMaxItems, 1, 10000);
+    batchConcurrency = resolveIntOpt(OPTION_BATCH_CONCURRENCY, batchConcurrency, 1, 1024);
+    clientMaxSize = resolveIntOpt(OPTION_CLIENT_MAX_SIZE, DEFAULT_CLIENT_MAX_SIZE, 0, Integer.MAX_VALUE);
+    if (featureOffload && offloadThreshold > 0 && clientMaxSize > 0 && offloadThreshold >= clientMaxSize) {
+      LOGGER.warn("{} {} is not below {} {}: aiohttp rejects request bodies large enough to be offloaded, "
+        + "except for operations whose x-max-body-size raises the limit", OPTION_OFFLOAD_THRESHOLD,
+        offloadThreshold, OPTION_CLIENT_MAX_SIZE, clientMaxSize);
+    }
+    featureBenchmarks = resolveBooleanOpt(OPTION_FEATURE_BENCHMARKS, featureBenchmarks);
+    additionalProperties.put(OPTION_FEATURE_BENCHMARKS, featureBenchmarks);
+    if (featureBenchmarks) {
+      modelTestTemplateFiles.put("model_benchmark.mustache", "_benchmark.py");
+      apiTestTemplateFiles.put("controller_benchmark.mustache", "_controller_benchmark.py");
+    }
+
+    serializationMode = resolveEnumOpt(OPTION_SERIALIZATION_MODE, serializationMode,
+      SERIALIZATION_MODE_REFLECTIVE, SERIALIZATION_MODE_COMPILED);
+    additionalProperties.put("compiledSerialization", SERIALIZATION_MODE_COMPILED.equals(serializationMode));
+
+    jsonLibrary = resolveEnumOpt(OPTION_JSON_LIBRARY, jsonLibrary,
+      JSON_LIBRARY_STDLIB, JSON_LIBRARY_ORJSON, JSON_LIBRARY_MSGSPEC);
+    additionalProperties.put("jsonLibraryOrjson", JSON_LIBRARY_ORJSON.equals(jsonLibrary));
+    additionalProperties.put("jsonLibraryMsgspec", JSON_LIBRARY_MSGSPEC.equals(jsonLibrary));
+
+    modelMode = resolveEnumOpt(OPTION_MODEL_MODE, modelMode, MODEL_MODE_CLASSIC, MODEL_MODE_SLOTS);
+    additionalProperties.put("slotsModels", MODEL_MODE_SLOTS.equals(modelMode));
+
+    dictResponseMode = resolveEnumOpt(OPTION_DICT_RESPONSE_MODE, dictResponseMode,
+      DICT_RESPONSE_MODE_CONVERT, DICT_RESPONSE_MODE_VALIDATE, DICT_RESPONSE_MODE_TRUST);
+    additionalProperties.put("dictResponsesConvert", DICT_RESPONSE_MODE_CONVERT.equals(dictResponseMode));
+    additionalProperties.put("dictResponsesValidate", DICT_RESPONSE_MODE_VALIDATE.equals(dictResponseMode));
+    additionalProperties.put("dictResponsesTrust", DICT_RESPONSE_MODE_TRUST.equals(dictResponseMode));
+
+    modelValidation = resolveEnumOpt(OPTION_MODEL_VALIDATION, modelValidation,
+      MODEL_VALIDATION_SETTER, MODEL_VALIDATION_COMPILED);
+    additionalProperties.put("compiledValidation", MODEL_VALIDATION_COMPILED.equals(modelValidation));
+    validateResponses = resolveBooleanOpt(OPTION_VALIDATE_RESPONSES, validateResponses);
+    additionalProperties.put(OPTION_VALIDATE_RESPONSES, validateResponses);
+
+    lazyControllers = resolveBooleanOpt(OPTION_LAZY_CONTROLLERS, lazyControllers);
+    additionalProperties.put(OPTION_LAZY_CONTROLLERS, lazyControllers);
+
+    lazySchemas = resolveBooleanOpt(OPTION_LAZY_SCHEMAS, lazySchemas);
+    additionalProperties.put(OPTION_LAZY_SCHEMAS, lazySchemas);
+
+    incremental = resolveBooleanOpt(OPTION_INCREMENTAL, incremental);
+    additionalProperties.put(OPTION_INCREMENTAL, incremental);
+    incrementalGeneration.setEnabled(incremental);
+
+    generatorThreads = resolveIntOpt(OPTION_GENERATOR_THREADS, generatorThreads, 0, Integer.MAX_VALUE);
 
     serverPort = sanitizePort(resolveStringOpt(OPTION_SERVER_PORT, serverPort));
+    workers = resolveIntOpt(OPTION_WORKERS, workers, 0, 4096);
+    eventLoop = resolveEnumOpt(OPTION_EVENT_LOOP, eventLoop, EVENT_LOOP_AUTO, EVENT_LOOP_ASYNCIO, EVENT_LOOP_UVLOOP);
+    backlog = resolveIntOpt(OPTION_BACKLOG, backlog, 1, 65535);
     contextPath = sanitizeContextPath(resolveStringOpt(OPTION_CONTEXT_PATH, contextPath));
     generatorLanguageVersion = resolveStringOpt(OPTION_GENERATOR_LANGUAGE_VERSION, generatorLanguageVersion);
 
@@ -509,15 +1886,44 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     supportingFiles.clear();
     supportingFiles.add(new SupportingFile("app.mustache", packageRootDir, "app.py"));
     supportingFiles.add(new SupportingFile("__init__main.mustache", packageRootDir, "__init__.py"));
+    supportingFiles.add(new SupportingFile("__main__.mustache", packageRootDir, "__main__.py"));
     supportingFiles.add(new SupportingFile("typing_utils.mustache", packageRootDir, "typing_utils.py"));
     supportingFiles.add(new SupportingFile("util.mustache", packageRootDir, "util.py"));
+    supportingFiles.add(new SupportingFile("formats.mustache", packageRootDir, "formats.py"));
+    supportingFiles.add(new SupportingFile("codec.mustache", packageRootDir, "codec.py"));
+    supportingFiles.add(new SupportingFile("params.mustache", packageRootDir, "params.py"));
     supportingFiles.add(new SupportingFile("__init__.mustache", controllersDir, "__init__.py"));
     supportingFiles.add(new SupportingFile("handler_init.mustache", handlersDir, "__init__.py"));
     supportingFiles.add(new SupportingFile("handler_base.mustache", handlersDir, "base.py"));
     supportingFiles.add(new SupportingFile("base_model.mustache", schemasDir, "base_model.py"));
     supportingFiles.add(new SupportingFile("__init__model.mustache", schemasDir, "__init__.py"));
+    if (featureBenchmarks) {
+      supportingFiles.add(new SupportingFile("__init__test.mustache", benchDir, "__init__.py"));
+      supportingFiles.add(new SupportingFile("bench_model_memory.mustache", benchDir, "model_memory.py"));
+      supportingFiles.add(new SupportingFile("bench_load.mustache", benchDir, "load.py"));
+      supportingFiles.add(new SupportingFile("bench_startup.mustache", benchDir, "startup.py"));
+    }
+    if (featureCompression) {
+      supportingFiles.add(new SupportingFile("compression.mustache", packageRootDir, "compression.py"));
+    }
+    if (featureOffload) {
+      supportingFiles.add(new SupportingFile("offload.mustache", packageRootDir, "offload.py"));
+    }
+    if (featureBatch) {
+      supportingFiles.add(new SupportingFile("batch.mustache", packageRootDir, "batch.py"));
+      supportingFiles.add(new SupportingFile("batch_test.mustache", testsDir, "test_batch.py"));
+    }
+    if (featureMetrics) {
+      supportingFiles.add(new SupportingFile("metrics.mustache", packageRootDir, "metrics.py"));
+      if (featureBenchmarks) {
+        supportingFiles.add(new SupportingFile("bench_metrics_overhead.mustache", benchDir, "metrics_overhead.py"));
+      }
+    }
     supportingFiles.add(new SupportingFile("conftest.mustache", testsDir, "conftest.py"));
     supportingFiles.add(new SupportingFile("__init__test.mustache", testsDir, "__init__.py"));
+    supportingFiles.add(new SupportingFile("codec_test.mustache", testsDir, "test_codec.py"));
+    supportingFiles.add(new SupportingFile("params_test.mustache", testsDir, "test_params.py"));
+    supportingFiles.add(new SupportingFile("launcher_test.mustache", testsDir, "test_launcher.py"));
   }
 
   private void configurePackageName() {
@@ -615,6 +2021,49 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     return str;
   }
 
+  /*
+   * Maps items on the annotation pool and returns the results in input order; with
+   * generatorThreads=1 (or a single item) it runs on the calling thread.
+   */
+  private <T, R> List<R> mapConcurrently(List<T> items, Function<T, R> mapper) {
+    int threads = generatorThreads > 0 ? generatorThreads : Runtime.getRuntime().availableProcessors();
+    if (threads <= 1 || items.size() <= 1) {
+      return items.stream().map(mapper).collect(Collectors.toList());
+    }
+    synchronized (this) {
+      if (annotationPool == null) {
+        annotationPool = new ForkJoinPool(threads);
+      }
+    }
+    try {
+      return annotationPool.submit(() -> items.parallelStream().map(mapper).collect(Collectors.toList())).get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while annotating the generator input", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  private int resolveIntOpt(String key, int defaultValue, int min, int max) {
+    String value = resolveStringOpt(key, Integer.toString(defaultValue));
+    int parsed;
+    try {
+      parsed = Integer.parseInt(value);
+    } catch (NumberFormatException ex) {
+      parsed = min - 1;
+    }
+    if (parsed < min || parsed > max) {
+      LOGGER.warn("Unsupported value '{}' for option {}, falling back to '{}'", value, key, defaultValue);
+      parsed = defaultValue;
+    }
+    additionalProperties.put(key, parsed);
+    return parsed;
+  }
+
   private boolean resolveBooleanOpt(String key, boolean defaultValue) {
     Object value = additionalProperties.get(key);
     if (value == null) {
@@ -626,6 +2075,16 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     return parsed;
   }
 
+  private String resolveEnumOpt(String key, String defaultValue, String... allowed) {
+    String value = resolveStringOpt(key, defaultValue).toLowerCase(Locale.ROOT);
+    if (!Arrays.asList(allowed).contains(value)) {
+      LOGGER.warn("Unsupported value '{}' for option {}, falling back to '{}'", value, key, defaultValue);
+      value = defaultValue;
+    }
+    additionalProperties.put(key, value);
+    return value;
+  }
+
   private String sanitizePackageNameValue(String value) {
     String candidate = StringUtils.defaultString(value, "").trim();
     if (".".equals(candidate)) {
@@ -756,8 +2215,10 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     schemasDir = joinPath(packageRootDir, "schemas");
     controllersDir = joinPath(packageRootDir, "controllers");
     handlersDir = joinPath(packageRootDir, deriveRelativePackageDir(handlerPackage));
+    benchDir = joinPath(packageRootDir, "bench");
     testsDir = joinPath(packageRootDir, normalizeRelativePath(testsRoot));
     controllerTestsDir = joinPath(testsDir, "controllers");
+    schemaTestsDir = joinPath(testsDir, "schemas");
   }
 
   private String normalizeRelativePath(String value) {
@@ -804,6 +2265,11 @@ public class AiohttpOpenapiCodegenGenerator extends AbstractPythonCodegen {
     return toOutputPath(controllerTestsDir);
   }
 
+  @Override
+  public String modelTestFileFolder() {
+    return toOutputPath(schemaTestsDir);
+  }
+
   @Override
   public String apiDocFileFolder() {
     return toOutputPath(handlersDir);
@@ -0,0 +1,492 @@
+package org.openapitools.codegen;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.curiousoddman.rgxgen.RgxGen;
+import com.github.curiousoddman.rgxgen.config.RgxGenOption;
+import com.github.curiousoddman.rgxgen.config.RgxGenProperties;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.examples.Example;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.commons.lang3.StringUtils;
+import org.openapitools.codegen.utils.ModelUtils;
+
+/**
+ * Example requests and stub responses for the generated load test (bench/load.py), and sample
+ * payloads per schema for the generated benchmark tests.
+ *
+ * Every operation gets one request built from the document: required parameters and
+ * parameters with an example, a JSON, form or binary request body, and the first successful
+ * JSON response for the stub handlers. Schema samples fill arrays with SAMPLE_ARRAY_ITEMS items
+ * unless minItems or maxItems say otherwise, so the conversion benchmarks measure more than one
+ * element. Values come from examples, defaults and enums, and are otherwise made up to satisfy
+ * the schema constraints (patterns, lengths, ranges, formats), so the generated validation
+ * accepts them; ExampleGenerator ignores patterns. Values are rendered as Python literals. All
+ * requests are built up front from the unprocessed document, since generating the models later
+ * fills in made-up schema examples; describe() then only reads the result and is safe to call
+ * concurrently.
+ */
+final class BenchRequests {
+
+  private static final String JSON = "application/json";
+  private static final String FORM = "application/x-www-form-urlencoded";
+  private static final String MULTIPART = "multipart/form-data";
+  private static final String BOUNDARY = "bench-boundary";
+  private static final int BINARY_BODY_SIZE = 1024;
+  private static final int MAX_DEPTH = 8;
+  private static final String WORD = "example";
+  private static final int SAMPLE_ARRAY_ITEMS = 10;
+
+  private final OpenAPI openAPI;
+  private final String contextPath;
+  private final ObjectMapper mapper = Json.mapper();
+  private final Map<String, Map<String, Object>> descriptors = new HashMap<>();
+  private final Map<String, String> samples = new HashMap<>();
+
+  BenchRequests(OpenAPI openAPI, String contextPath) {
+    this.openAPI = openAPI;
+    this.contextPath = StringUtils.defaultString(contextPath);
+    if (openAPI.getPaths() != null) {
+      for (Map.Entry<String, PathItem> path : openAPI.getPaths().entrySet()) {
+        for (Map.Entry<PathItem.HttpMethod, Operation> operation : path.getValue().readOperationsMap().entrySet()) {
+          descriptors.put(key(operation.getKey().name(), path.getKey()),
+            describe(path.getKey(), path.getValue(), operation.getValue()));
+        }
+      }
+    }
+    if (openAPI.getComponents() != null && openAPI.getComponents().getSchemas() != null) {
+      for (Map.Entry<String, Schema> schema : openAPI.getComponents().getSchemas().entrySet()) {
+        String json = toJson(valueOf(schema.getValue(), new HashSet<>(Collections.singleton(schema.getKey())), 0,
+          SAMPLE_ARRAY_ITEMS));
+        if (json != null) {
+          samples.put(schema.getKey(), json);
+        }
+      }
+    }
+  }
+
+  Map<String, Object> describe(CodegenOperation codegenOperation) {
+    return descriptors.get(key(codegenOperation.httpMethod, codegenOperation.path));
+  }
+
+  /*
+   * Compact JSON of a value satisfying the named component schema, or null when there is none.
+   */
+  String sample(String schemaName) {
+    return samples.get(schemaName);
+  }
+
+  private static String key(String httpMethod, String path) {
+    return httpMethod.toUpperCase(Locale.ROOT) + " " + path;
+  }
+
+  private Map<String, Object> describe(String path, PathItem pathItem, Operation operation) {
+    List<Map<String, String>> query = new ArrayList<>();
+    List<Map<String, String>> headers = new ArrayList<>();
+    List<String> cookies = new ArrayList<>();
+    for (Parameter parameter : parameters(pathItem, operation)) {
+      String value = parameterValue(parameter);
+      if (value == null) {
+        continue;
+      }
+      switch (StringUtils.defaultString(parameter.getIn())) {
+        case "path":
+          path = path.replace("{" + parameter.getName() + "}", urlEncode(value));
+          break;
+        case "query":
+          query.add(pair(parameter.getName(), value));
+          break;
+        case "header":
+          headers.add(pair(parameter.getName(), value));
+          break;
+        case "cookie":
+          cookies.add(parameter.getName() + "=" + value);
+          break;
+        default:
+          break;
+      }
+    }
+    if (!cookies.isEmpty()) {
+      headers.add(pair("Cookie", String.join("; ", cookies)));
+    }
+
+    Map<String, Object> descriptor = new HashMap<>();
+    descriptor.put("url", PythonLiterals.string(contextPath + path));
+    descriptor.put("query", query);
+    descriptor.put("headers", headers);
+    describeBody(operation, descriptor);
+    describeResponse(operation, descriptor);
+    return descriptor;
+  }
+
+  private List<Parameter> parameters(PathItem pathItem, Operation operation) {
+    Map<String, Parameter> byKey = new LinkedHashMap<>();
+    for (List<Parameter> declared : Arrays.asList(pathItem.getParameters(), operation.getParameters())) {
+      if (declared == null) {
+        continue;
+      }
+      for (Parameter parameter : declared) {
+        Parameter resolved = ModelUtils.getReferencedParameter(openAPI, parameter);
+        if (resolved != null && resolved.getName() != null) {
+          // operation level parameters override path level ones
+          byKey.put(resolved.getIn() + ":" + resolved.getName(), resolved);
+        }
+      }
+    }
+    return new ArrayList<>(byKey.values());
+  }
+
+  /*
+   * Optional parameters without an example are left out; the server fills in their defaults.
+   */
+  private String parameterValue(Parameter parameter) {
+    Object example = parameter.getExample();
+    if (example == null && parameter.getSchema() != null) {
+      example = ModelUtils.getReferencedSchema(openAPI, parameter.getSchema()).getExample();
+    }
+    if (example == null && !Boolean.TRUE.equals(parameter.getRequired())) {
+      return null;
+    }
+    Object value = example != null ? normalize(example) : valueOf(parameter.getSchema(), new HashSet<String>(), 0, 1);
+    if (value instanceof List) {
+      return StringUtils.join((List<?>) value, ",");
+    }
+    return value == null ? "1" : String.valueOf(value);
+  }
+
+  /*
+   * A JSON-ready value (maps, lists, strings, numbers, booleans) satisfying the schema, or null
+   * when a $ref cycle or the depth limit leaves nothing to fill in.
+   */
+  @SuppressWarnings("unchecked")
+  private Object valueOf(Schema declared, Set<String> visiting, int depth, int arrayItems) {
+    if (declared == null || depth > MAX_DEPTH) {
+      return null;
+    }
+    String ref = declared.get$ref();
+    if (ref != null) {
+      String name = ModelUtils.getSimpleRef(ref);
+      if (!visiting.add(name)) {
+        return null;
+      }
+      try {
+        return valueOf(ModelUtils.getReferencedSchema(openAPI, declared), visiting, depth + 1, arrayItems);
+      } finally {
+        visiting.remove(name);
+      }
+    }
+    Schema schema = declared;
+    if (schema.getExample() != null) {
+      return normalize(schema.getExample());
+    }
+    if (schema.getDefault() != null) {
+      return normalize(schema.getDefault());
+    }
+    if (schema.getEnum() != null && !schema.getEnum().isEmpty() && schema.getEnum().get(0) != null) {
+      return normalize(schema.getEnum().get(0));
+    }
+    if (schema.getAllOf() != null && !schema.getAllOf().isEmpty()) {
+      Map<String, Object> merged = new LinkedHashMap<>();
+      for (Object part : schema.getAllOf()) {
+        Object value = valueOf((Schema) part, visiting, depth + 1, arrayItems);
+        if (value instanceof Map) {
+          merged.putAll((Map<String, Object>) value);
+        }
+      }
+      merged.putAll(objectValue(schema, visiting, depth, arrayItems));
+      return merged;
+    }
+    List<Schema> alternatives = schema.getOneOf() != null && !schema.getOneOf().isEmpty() ? schema.getOneOf()
+      : schema.getAnyOf();
+    if (alternatives != null) {
+      for (Schema alternative : alternatives) {
+        Object value = valueOf(alternative, visiting, depth + 1, arrayItems);
+        if (value != null) {
+          return value;
+        }
+      }
+    }
+    if (ModelUtils.isArraySchema(schema)) {
+      List<Object> items = new ArrayList<>();
+      // nested arrays get a single item, so the sample stays linear in size
+      Object item = valueOf(schema.getItems(), visiting, depth + 1, 1);
+      int count = Math.max(arrayItems, schema.getMinItems() == null ? 1 : schema.getMinItems());
+      if (schema.getMaxItems() != null) {
+        count = Math.max(1, Math.min(count, schema.getMaxItems()));
+      }
+      for (int index = 0; item != null && index < count; index++) {
+        items.add(item);
+      }
+      return items;
+    }
+    if (ModelUtils.isIntegerSchema(schema)) {
+      return numberValue(schema).setScale(0, RoundingMode.CEILING).toBigInteger();
+    }
+    if (ModelUtils.isNumberSchema(schema)) {
+      return numberValue(schema);
+    }
+    if (ModelUtils.isBooleanSchema(schema)) {
+      return Boolean.TRUE;
+    }
+    if (ModelUtils.isStringSchema(schema)) {
+      return stringValue(schema);
+    }
+    if (ModelUtils.isObjectSchema(schema) || ModelUtils.isMapSchema(schema) || schema.getProperties() != null) {
+      return objectValue(schema, visiting, depth, arrayItems);
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> objectValue(Schema schema, Set<String> visiting, int depth, int arrayItems) {
+    Map<String, Object> object = new LinkedHashMap<>();
+    if (schema.getProperties() != null) {
+      for (Map.Entry<String, Schema> property : ((Map<String, Schema>) schema.getProperties()).entrySet()) {
+        Object value = valueOf(property.getValue(), visiting, depth + 1, arrayItems);
+        if (value != null) {
+          object.put(property.getKey(), value);
+        }
+      }
+    }
+    if (object.isEmpty() && schema.getAdditionalProperties() instanceof Schema) {
+      Object value = valueOf((Schema) schema.getAdditionalProperties(), visiting, depth + 1, arrayItems);
+      if (value != null) {
+        object.put("key", value);
+      }
+    }
+    return object;
+  }
+
+  private BigDecimal numberValue(Schema schema) {
+    BigDecimal minimum = schema.getMinimum();
+    BigDecimal maximum = schema.getMaximum();
+    if (minimum != null) {
+      return Boolean.TRUE.equals(schema.getExclusiveMinimum()) ? minimum.add(BigDecimal.ONE) : minimum;
+    }
+    if (maximum != null && maximum.compareTo(BigDecimal.ONE) < 0) {
+      return Boolean.TRUE.equals(schema.getExclusiveMaximum()) ? maximum.subtract(BigDecimal.ONE) : maximum;
+    }
+    return BigDecimal.ONE;
+  }
+
+  private String stringValue(Schema schema) {
+    if (ModelUtils.isUUIDSchema(schema)) {
+      return "00000000-0000-4000-8000-000000000001";
+    }
+    if (ModelUtils.isDateTimeSchema(schema)) {
+      return "2024-01-01T00:00:00Z";
+    }
+    if (ModelUtils.isDateSchema(schema)) {
+      return "2024-01-01";
+    }
+    if (ModelUtils.isByteArraySchema(schema)) {
+      return Base64.getEncoder().encodeToString(WORD.getBytes(StandardCharsets.UTF_8));
+    }
+    if (ModelUtils.isEmailSchema(schema)) {
+      return "user@example.com";
+    }
+    if (ModelUtils.isURISchema(schema)) {
+      return "https://example.com";
+    }
+    String value = WORD;
+    if (schema.getPattern() != null) {
+      RgxGen generator = new RgxGen(schema.getPattern());
+      RgxGenProperties properties = new RgxGenProperties();
+      RgxGenOption.INFINITE_PATTERN_REPETITION.setInProperties(properties, 3);
+      generator.setProperties(properties);
+      // seeded by the pattern, so regenerating gives the same file
+      value = generator.generate(new Random(schema.getPattern().hashCode()));
+    }
+    if (schema.getMaxLength() != null && value.length() > schema.getMaxLength()) {
+      value = value.substring(0, schema.getMaxLength());
+    }
+    if (schema.getMinLength() != null && value.length() < schema.getMinLength()) {
+      value = value + StringUtils.repeat('a', schema.getMinLength() - value.length());
+    }
+    return value;
+  }
+
+  /*
+   * The parser hands out dates and date-times as java.time / java.util.Date values.
+   */
+  private static Object normalize(Object value) {
+    if (value instanceof Date) {
+      return DateTimeFormatter.ISO_INSTANT.format(((Date) value).toInstant());
+    }
+    if (value instanceof OffsetDateTime || value instanceof LocalDate || value instanceof UUID) {
+      return value.toString();
+    }
+    return value;
+  }
+
+  private void describeBody(Operation operation, Map<String, Object> descriptor) {
+    RequestBody requestBody = ModelUtils.getReferencedRequestBody(openAPI, operation.getRequestBody());
+    Content content = requestBody == null ? null : requestBody.getContent();
+    String body = "None";
+    String contentType = "None";
+    if (content != null && !content.isEmpty()) {
+      String mediaType = jsonMediaType(content);
+      if (mediaType != null) {
+        String json = example(content.get(mediaType));
+        if (json != null) {
+          body = PythonLiterals.string(json);
+          contentType = PythonLiterals.string(mediaType);
+        }
+      } else if (content.containsKey("application/octet-stream")) {
+        body = "'x' * " + BINARY_BODY_SIZE;
+        contentType = PythonLiterals.string("application/octet-stream");
+      } else if (content.containsKey(FORM) || content.containsKey(MULTIPART)) {
+        boolean multipart = !content.containsKey(FORM);
+        Map<String, Object> fields = formFields(content.get(multipart ? MULTIPART : FORM));
+        if (fields != null) {
+          body = PythonLiterals.string(multipart ? multipartBody(fields) : formBody(fields));
+          contentType = PythonLiterals.string(multipart ? MULTIPART + "; boundary=" + BOUNDARY : FORM);
+        }
+      }
+    }
+    descriptor.put("body", body);
+    descriptor.put("contentType", contentType);
+  }
+
+  /*
+   * The stub handlers answer with the first 2xx response and its JSON example.
+   */
+  private void describeResponse(Operation operation, Map<String, Object> descriptor) {
+    String status = "200";
+    String payload = "None";
+    if (operation.getResponses() != null) {
+      for (Map.Entry<String, ApiResponse> entry : operation.getResponses().entrySet()) {
+        if (!entry.getKey().startsWith("2")) {
+          continue;
+        }
+        status = entry.getKey().matches("\\d{3}") ? entry.getKey() : "200";
+        ApiResponse response = ModelUtils.getReferencedApiResponse(openAPI, entry.getValue());
+        Content content = response == null ? null : response.getContent();
+        String mediaType = content == null ? null : jsonMediaType(content);
+        if (mediaType != null) {
+          String json = example(content.get(mediaType));
+          if (json != null) {
+            payload = PythonLiterals.string(json);
+          }
+        }
+        break;
+      }
+    }
+    descriptor.put("status", status);
+    descriptor.put("payload", payload);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Object> formFields(MediaType mediaType) {
+    Object value = mediaType == null ? null : valueOf(mediaType.getSchema(), new HashSet<String>(), 0, 1);
+    return value instanceof Map && !((Map<?, ?>) value).isEmpty() ? (Map<String, Object>) value : null;
+  }
+
+  private static String formBody(Map<String, Object> fields) {
+    List<String> pairs = new ArrayList<>();
+    for (Map.Entry<String, Object> field : fields.entrySet()) {
+      pairs.add(urlEncode(field.getKey()) + "=" + urlEncode(formValue(field.getValue())));
+    }
+    return String.join("&", pairs);
+  }
+
+  private static String multipartBody(Map<String, Object> fields) {
+    StringBuilder body = new StringBuilder();
+    for (Map.Entry<String, Object> field : fields.entrySet()) {
+      body.append("--").append(BOUNDARY).append("\r\n")
+        .append("Content-Disposition: form-data; name=\"").append(field.getKey()).append("\"\r\n\r\n")
+        .append(formValue(field.getValue())).append("\r\n");
+    }
+    return body.append("--").append(BOUNDARY).append("--\r\n").toString();
+  }
+
+  private static String formValue(Object value) {
+    return value instanceof List ? StringUtils.join((List<?>) value, ",") : String.valueOf(value);
+  }
+
+  private String jsonMediaType(Content content) {
+    if (content.containsKey(JSON)) {
+      return JSON;
+    }
+    for (String mediaType : content.keySet()) {
+      if (mediaType.toLowerCase(Locale.ROOT).contains("json")) {
+        return mediaType;
+      }
+    }
+    return null;
+  }
+
+  /*
+   * Compact JSON of the media type example, or of a value made up from its schema.
+   */
+  private String example(MediaType mediaType) {
+    if (mediaType == null) {
+      return null;
+    }
+    Object value = mediaType.getExample();
+    if (value == null && mediaType.getExamples() != null && !mediaType.getExamples().isEmpty()) {
+      Example named = mediaType.getExamples().values().iterator().next();
+      value = named == null ? null : named.getValue();
+    }
+    if (value == null) {
+      value = valueOf(mediaType.getSchema(), new HashSet<String>(), 0, 1);
+    }
+    return toJson(value);
+  }
+
+  private String toJson(Object value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return mapper.writeValueAsString(value);
+    } catch (JsonProcessingException ex) {
+      return null;
+    }
+  }
+
+  private static Map<String, String> pair(String name, String value) {
+    Map<String, String> pair = new HashMap<>();
+    pair.put("name", PythonLiterals.string(name));
+    pair.put("value", PythonLiterals.string(value));
+    return pair;
+  }
+
+  private static String urlEncode(String value) {
+    try {
+      return URLEncoder.encode(value, "UTF-8").replace("+", "%20");
+    } catch (UnsupportedEncodingException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
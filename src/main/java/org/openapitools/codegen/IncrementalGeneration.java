@@ -0,0 +1,512 @@
+package org.openapitools.codegen;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.model.ModelMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Incremental mode of {@link AiohttpOpenapiCodegenGenerator}.
+ *
+ * Every rendered model, controller, handler and supporting file is recorded in a manifest in the
+ * output directory together with a hash of its inputs: the schema (or the operations of the tag)
+ * and the components it references, the generator options, the template and the generator
+ * itself. When the inputs and the file on disk are unchanged on the next run, the existing
+ * content is handed back instead of rendering the template, so the template manager sees
+ * identical bytes and leaves the file and its mtime alone. Files whose schema or tag disappeared
+ * from the document are deleted.
+ *
+ * DefaultGenerator does not consult the codegen before writing a file, so this hooks in as a
+ * wrapper around the templating engine.
+ */
+final class IncrementalGeneration {
+
+  static final String MANIFEST_PATH = ".openapi-generator/aiohttp-incremental.json";
+
+  private static final int MANIFEST_VERSION = 1;
+  private static final String KIND_MODEL = "model";
+  private static final String KIND_API = "api";
+  private static final String KIND_SUPPORTING = "supporting";
+  private static final String DEFAULT_TAG = "default";
+  private static final Pattern COMPONENT_REF = Pattern.compile("#/components/([A-Za-z]+)/([^\"]+)\"");
+  // Timestamps refreshed on every run and the spec location; the document itself is hashed per file.
+  private static final Set<String> VOLATILE_PROPERTIES = new LinkedHashSet<>(
+    Arrays.asList("generatedDate", "generatedYear", "inputSpec"));
+
+  private final Logger LOGGER = LoggerFactory.getLogger(IncrementalGeneration.class);
+
+  private final AiohttpOpenapiCodegenGenerator generator;
+  private final ObjectMapper mapper = Json.mapper();
+  private final Map<String, Entry> current = new ConcurrentHashMap<>();
+  private final Map<String, String> templateHashes = new ConcurrentHashMap<>();
+  private final Map<String, String> componentJson = new ConcurrentHashMap<>();
+  private final AtomicInteger rewritten = new AtomicInteger();
+  private final AtomicInteger unchanged = new AtomicInteger();
+  private boolean enabled;
+  private Map<String, Entry> previous;
+  private Map<String, StringBuilder> operationsByTag;
+  private String documentHash;
+  private String optionsHash;
+
+  IncrementalGeneration(AiohttpOpenapiCodegenGenerator generator) {
+    this.generator = generator;
+  }
+
+  void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  TemplatingEngineAdapter wrap(TemplatingEngineAdapter engine) {
+    if (engine == null || engine instanceof SkippingEngine) {
+      return engine;
+    }
+    return new SkippingEngine(engine);
+  }
+
+  /**
+   * Prunes files of removed schemas and tags, writes the manifest and reports the counts.
+   */
+  void finish(OpenAPI openAPI) {
+    if (!enabled || previous == null) {
+      return;
+    }
+    Set<String> schemas = schemaNames(openAPI);
+    Set<String> tags = operationsByTag.keySet();
+    int pruned = 0;
+    Map<String, Entry> manifest = new TreeMap<>(current);
+    for (Map.Entry<String, Entry> entry : previous.entrySet()) {
+      if (manifest.containsKey(entry.getKey())) {
+        continue;
+      }
+      Entry stale = entry.getValue();
+      boolean removed = KIND_MODEL.equals(stale.kind) && !schemas.contains(stale.source)
+        || KIND_API.equals(stale.kind) && !tags.contains(stale.source);
+      if (!removed) {
+        // Not rendered this run (ignored, filtered or never overwritten), but still current.
+        manifest.put(entry.getKey(), stale);
+        continue;
+      }
+      File file = resolve(entry.getKey());
+      if (file.isFile() && !file.delete()) {
+        LOGGER.warn("Could not delete {} generated for removed {} '{}'", file, stale.kind, stale.source);
+        continue;
+      }
+      pruned++;
+    }
+    writeManifest(manifest);
+    LOGGER.info("Incremental generation: {} files rewritten, {} unchanged, {} pruned",
+      rewritten.get(), unchanged.get(), pruned);
+  }
+
+  private String render(TemplatingEngineAdapter delegate, TemplatingExecutor executor, Map<String, Object> bundle,
+                        String templateFile) throws IOException {
+    if (!enabled) {
+      return delegate.compileTemplate(executor, bundle, templateFile);
+    }
+    initialize();
+    Target target = resolveTarget(bundle, templateFile);
+    if (target == null) {
+      return delegate.compileTemplate(executor, bundle, templateFile);
+    }
+    String inputHash = sha256(target.inputs, optionsHash, templateHash(executor, templateFile));
+    Entry recorded = previous.get(target.path);
+    File file = resolve(target.path);
+    if (recorded != null && recorded.input.equals(inputHash) && file.isFile()) {
+      String existing = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+      if (recorded.output.equals(sha256(existing))) {
+        current.put(target.path, recorded);
+        unchanged.incrementAndGet();
+        return existing;
+      }
+    }
+    String rendered = delegate.compileTemplate(executor, bundle, templateFile);
+    current.put(target.path, new Entry(target.kind, target.source, inputHash, sha256(rendered)));
+    rewritten.incrementAndGet();
+    return rendered;
+  }
+
+  private synchronized void initialize() {
+    if (previous != null) {
+      return;
+    }
+    OpenAPI openAPI = generator.openAPI;
+    operationsByTag = groupOperations(openAPI);
+    documentHash = sha256(toJson(openAPI));
+    Map<String, String> options = new TreeMap<>();
+    for (Map.Entry<String, Object> entry : generator.additionalProperties().entrySet()) {
+      Object value = entry.getValue();
+      boolean primitive = value instanceof String || value instanceof Boolean || value instanceof Number;
+      if (primitive && !VOLATILE_PROPERTIES.contains(entry.getKey())) {
+        options.put(entry.getKey(), value.toString());
+      }
+    }
+    optionsHash = sha256(options.toString(), generatorHash());
+    previous = readManifest();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Target resolveTarget(Map<String, Object> bundle, String templateFile) {
+    Object models = bundle.get("models");
+    if (generator.modelTemplateFiles().containsKey(templateFile) && models instanceof List
+      && ((List<?>) models).size() == 1) {
+      CodegenModel model = ((List<ModelMap>) models).get(0).getModel();
+      String path = generator.modelFilename(templateFile, model.name);
+      return new Target(relativize(path), KIND_MODEL, model.name, schemaInputs(model.name));
+    }
+    Object tag = bundle.get("baseName");
+    if (tag != null && (generator.apiTemplateFiles().containsKey(templateFile)
+      || generator.apiDocTemplateFiles().containsKey(templateFile))) {
+      String path = generator.apiTemplateFiles().containsKey(templateFile)
+        ? generator.apiFilename(templateFile, tag.toString())
+        : generator.apiDocFilename(templateFile, tag.toString());
+      return new Target(relativize(path), KIND_API, tag.toString(), tagInputs(tag.toString()));
+    }
+    SupportingFile match = null;
+    for (SupportingFile supportingFile : generator.supportingFiles()) {
+      if (!templateFile.equals(supportingFile.getTemplateFile())) {
+        continue;
+      }
+      if (match != null || !supportingFile.isCanOverwrite()) {
+        // The same template feeds several files (or the file is never overwritten): always render.
+        return null;
+      }
+      match = supportingFile;
+    }
+    if (match == null) {
+      return null;
+    }
+    String path = Paths.get(generator.outputFolder(), match.getFolder(), match.getDestinationFilename()).toString();
+    return new Target(relativize(path), KIND_SUPPORTING, templateFile, documentHash);
+  }
+
+  /**
+   * The schema of a model plus every component it references, directly or through other schemas,
+   * since nested properties and composed schemas are rendered from the referenced definitions.
+   */
+  private String schemaInputs(String name) {
+    String schema = component("schemas", name);
+    StringBuilder inputs = new StringBuilder(schema);
+    Deque<String> pending = new ArrayDeque<>();
+    pending.push(schema);
+    Set<String> seen = new LinkedHashSet<>();
+    seen.add("schemas/" + name);
+    while (!pending.isEmpty()) {
+      Matcher matcher = COMPONENT_REF.matcher(pending.pop());
+      while (matcher.find()) {
+        if (seen.add(matcher.group(1) + "/" + matcher.group(2))) {
+          String json = component(matcher.group(1), matcher.group(2));
+          inputs.append('\n').append(json);
+          pending.push(json);
+        }
+      }
+    }
+    return inputs.toString();
+  }
+
+  /**
+   * The operations of a tag plus the components they reference. Parameters, request bodies and
+   * responses are followed until they reach a schema; schemas contribute only their own JSON,
+   * since controllers refer to models by name.
+   */
+  private String tagInputs(String tag) {
+    StringBuilder operations = operationsByTag.get(tag);
+    StringBuilder inputs = new StringBuilder(operations == null ? "" : operations);
+    Deque<String> pending = new ArrayDeque<>();
+    pending.push(inputs.toString());
+    Set<String> seen = new LinkedHashSet<>();
+    while (!pending.isEmpty()) {
+      Matcher matcher = COMPONENT_REF.matcher(pending.pop());
+      while (matcher.find()) {
+        String type = matcher.group(1);
+        if (!seen.add(type + "/" + matcher.group(2))) {
+          continue;
+        }
+        String json = component(type, matcher.group(2));
+        inputs.append('\n').append(json);
+        if (!"schemas".equals(type)) {
+          pending.push(json);
+        }
+      }
+    }
+    return inputs.toString();
+  }
+
+  private Map<String, StringBuilder> groupOperations(OpenAPI openAPI) {
+    Map<String, StringBuilder> result = new HashMap<>();
+    if (openAPI == null || openAPI.getPaths() == null) {
+      return result;
+    }
+    String security = toJson(openAPI.getSecurity());
+    for (Map.Entry<String, PathItem> path : openAPI.getPaths().entrySet()) {
+      PathItem pathItem = path.getValue();
+      for (Map.Entry<PathItem.HttpMethod, Operation> operation : pathItem.readOperationsMap().entrySet()) {
+        List<String> tags = operation.getValue().getTags();
+        String json = path.getKey() + ' ' + operation.getKey() + '\n' + toJson(pathItem.getParameters()) + '\n'
+          + toJson(operation.getValue()) + '\n' + security + '\n';
+        for (String tag : tags == null || tags.isEmpty() ? Collections.singletonList(DEFAULT_TAG) : tags) {
+          result.computeIfAbsent(generator.sanitizeTag(tag), key -> new StringBuilder()).append(json);
+        }
+      }
+    }
+    return result;
+  }
+
+  private String component(String type, String name) {
+    return componentJson.computeIfAbsent(type + "/" + name, key -> {
+      OpenAPI openAPI = generator.openAPI;
+      if (openAPI == null || openAPI.getComponents() == null) {
+        return "";
+      }
+      Object value = null;
+      switch (type) {
+        case "schemas":
+          value = get(openAPI.getComponents().getSchemas(), name);
+          break;
+        case "parameters":
+          value = get(openAPI.getComponents().getParameters(), name);
+          break;
+        case "requestBodies":
+          value = get(openAPI.getComponents().getRequestBodies(), name);
+          break;
+        case "responses":
+          value = get(openAPI.getComponents().getResponses(), name);
+          break;
+        case "headers":
+          value = get(openAPI.getComponents().getHeaders(), name);
+          break;
+        case "securitySchemes":
+          value = get(openAPI.getComponents().getSecuritySchemes(), name);
+          break;
+        default:
+          break;
+      }
+      return key + '=' + toJson(value);
+    });
+  }
+
+  private static Object get(Map<String, ?> components, String name) {
+    return components == null ? null : components.get(name);
+  }
+
+  private static Set<String> schemaNames(OpenAPI openAPI) {
+    if (openAPI == null || openAPI.getComponents() == null || openAPI.getComponents().getSchemas() == null) {
+      return Collections.emptySet();
+    }
+    return openAPI.getComponents().getSchemas().keySet();
+  }
+
+  private String templateHash(TemplatingExecutor executor, String templateFile) {
+    return templateHashes.computeIfAbsent(templateFile,
+      name -> sha256(executor.getFullTemplateContents(name)));
+  }
+
+  /**
+   * The bytecode of the generator classes, so that output rendered by an older build is not
+   * reused when the code computing the template data has changed.
+   */
+  private String generatorHash() {
+    MessageDigest digest = sha256Digest();
+    Deque<Class<?>> pending = new ArrayDeque<>(Arrays.asList(
+      AiohttpOpenapiCodegenGenerator.class, BenchRequests.class, IncrementalGeneration.class));
+    while (!pending.isEmpty()) {
+      Class<?> type = pending.pop();
+      pending.addAll(Arrays.asList(type.getDeclaredClasses()));
+      String name = type.getName();
+      try (InputStream stream = type.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+        if (stream == null) {
+          return "";
+        }
+        byte[] buffer = new byte[8192];
+        for (int read = stream.read(buffer); read > 0; read = stream.read(buffer)) {
+          digest.update(buffer, 0, read);
+        }
+      } catch (IOException e) {
+        return "";
+      }
+    }
+    return hex(digest.digest());
+  }
+
+  private Map<String, Entry> readManifest() {
+    Map<String, Entry> entries = new HashMap<>();
+    File file = resolve(MANIFEST_PATH);
+    if (!file.isFile()) {
+      return entries;
+    }
+    try {
+      JsonNode root = mapper.readTree(file);
+      if (root.path("version").asInt() != MANIFEST_VERSION) {
+        LOGGER.info("Ignoring incremental manifest {} written by another version", file);
+        return entries;
+      }
+      Iterator<Map.Entry<String, JsonNode>> files = root.path("files").fields();
+      while (files.hasNext()) {
+        Map.Entry<String, JsonNode> node = files.next();
+        JsonNode value = node.getValue();
+        entries.put(node.getKey(), new Entry(value.path("kind").asText(), value.path("source").asText(),
+          value.path("input").asText(), value.path("output").asText()));
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Ignoring unreadable incremental manifest {}: {}", file, e.getMessage());
+      entries.clear();
+    }
+    return entries;
+  }
+
+  private void writeManifest(Map<String, Entry> entries) {
+    ObjectNode root = mapper.createObjectNode();
+    root.put("version", MANIFEST_VERSION);
+    ObjectNode files = root.putObject("files");
+    for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+      ObjectNode node = files.putObject(entry.getKey());
+      node.put("kind", entry.getValue().kind);
+      node.put("source", entry.getValue().source);
+      node.put("input", entry.getValue().input);
+      node.put("output", entry.getValue().output);
+    }
+    File file = resolve(MANIFEST_PATH);
+    try {
+      Files.createDirectories(file.getParentFile().toPath());
+      mapper.writerWithDefaultPrettyPrinter().writeValue(file, root);
+    } catch (IOException e) {
+      LOGGER.warn("Could not write incremental manifest {}: {}", file, e.getMessage());
+    }
+  }
+
+  private File resolve(String relativePath) {
+    return new File(generator.outputFolder(), relativePath);
+  }
+
+  private String relativize(String path) {
+    Path root = Paths.get(generator.outputFolder()).toAbsolutePath().normalize();
+    return root.relativize(Paths.get(path).toAbsolutePath().normalize()).toString().replace(File.separatorChar, '/');
+  }
+
+  private String toJson(Object value) {
+    try {
+      return mapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      return String.valueOf(value);
+    }
+  }
+
+  private static String sha256(String... parts) {
+    MessageDigest digest = sha256Digest();
+    for (String part : parts) {
+      digest.update(part.getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+    }
+    return hex(digest.digest());
+  }
+
+  private static MessageDigest sha256Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  private static class Target {
+    private final String path;
+    private final String kind;
+    private final String source;
+    private final String inputs;
+
+    private Target(String path, String kind, String source, String inputs) {
+      this.path = path;
+      this.kind = kind;
+      this.source = source;
+      this.inputs = inputs;
+    }
+  }
+
+  private static class Entry {
+    private final String kind;
+    private final String source;
+    private final String input;
+    private final String output;
+
+    private Entry(String kind, String source, String input, String output) {
+      this.kind = kind;
+      this.source = source;
+      this.input = input;
+      this.output = output;
+    }
+  }
+
+  private class SkippingEngine implements TemplatingEngineAdapter {
+    private final TemplatingEngineAdapter delegate;
+
+    private SkippingEngine(TemplatingEngineAdapter delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public String getIdentifier() {
+      return delegate.getIdentifier();
+    }
+
+    @Override
+    public String[] getFileExtensions() {
+      return delegate.getFileExtensions();
+    }
+
+    @Override
+    public boolean handlesFile(String filename) {
+      return delegate.handlesFile(filename);
+    }
+
+    @Override
+    public boolean templateExists(TemplatingExecutor generator, String templateFile) {
+      return delegate.templateExists(generator, templateFile);
+    }
+
+    @Override
+    public String compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle, String templateFile)
+      throws IOException {
+      return render(delegate, executor, bundle, templateFile);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package org.openapitools.codegen;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Python source literals for the values the generator writes into templates: parameter and
+ * header names, enum values, patterns and the example requests of the benchmarks.
+ */
+final class PythonLiterals {
+
+  private PythonLiterals() {
+  }
+
+  /*
+   * A single quoted str literal. Quotes, backslashes and control characters are escaped, so any
+   * name or value of the document is written as it is.
+   */
+  static String string(String value) {
+    // single quotes keep the JSON examples readable
+    StringBuilder literal = new StringBuilder(value.length() + 2).append('\'');
+    for (int index = 0; index < value.length(); index++) {
+      char character = value.charAt(index);
+      switch (character) {
+        case '\\':
+          literal.append("\\\\");
+          break;
+        case '\'':
+          literal.append("\\'");
+          break;
+        case '\n':
+          literal.append("\\n");
+          break;
+        case '\r':
+          literal.append("\\r");
+          break;
+        default:
+          if (character < 0x20 || character == 0x7f) {
+            literal.append(String.format(Locale.ROOT, "\\x%02x", (int) character));
+          } else {
+            literal.append(character);
+          }
+      }
+    }
+    return literal.append('\'').toString();
+  }
+
+  /*
+   * A tuple literal of str values, with the trailing comma a single item needs.
+   */
+  static String tuple(Collection<String> values) {
+    List<String> literals = values.stream().map(PythonLiterals::string).collect(Collectors.toList());
+    return "(" + String.join(", ", literals) + (literals.size() == 1 ? ",)" : ")");
+  }
+}
@@ -0,0 +1,45 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * featureBatch: the batch endpoint of batch.py.
+ */
+public class BatchTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void batchCallsRunThroughTheApplicationMiddlewares() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_BATCH, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_METRICS, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+    String batch = project.file("batch.py");
+    String app = project.file("app.py");
+
+    assertTrue(app.contains("    batch.setup(app)\n"));
+    assertTrue(batch.contains("    \"get_pet\": ("));
+    // every call is wrapped in the middlewares of the application, outermost first
+    assertTrue(batch.contains("middlewares = tuple(request.app.middlewares)"));
+    assertTrue(batch.contains("handler = _through(route.handler, middlewares)"));
+    // called positionally, whatever the middleware names its handler parameter
+    assertTrue(batch.contains("lambda request: middleware(request, handler)"));
+    assertFalse(batch.contains("functools.partial("));
+    // middlewares keyed by route handler find the operation of the call
+    assertTrue(batch.contains("self.match_info = _MatchInfo(path, route)"));
+    // calls answer uncompressed, the batch response is compressed as a whole
+    assertTrue(batch.contains("\"Transfer-Encoding\", \"Accept-Encoding\")"));
+    // the batch request itself is not recorded, its calls are
+    assertTrue(app.contains("    registry.exclude(batch.handle_batch)\n"));
+    project.assertTestsPass("tests/test_batch.py");
+  }
+}
@@ -0,0 +1,31 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * x-max-body-size: request bodies limited per operation while they are read.
+ */
+public class BodySizeLimitsTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void bodySizeLimitsAreEnforcedWhileReading() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+
+    assertTrue(project.controllers().contains("_params.read_body(request, 4194304)"));
+    // LimitedStream.read() counts chunk by chunk instead of buffering the body first
+    assertTrue(project.file("params.py").contains("while chunk := await self.readany():"));
+    // the application wide limit is raised to the largest limit of the spec
+    assertTrue(project.file("app.py").contains("CLIENT_MAX_SIZE = 4194304"));
+    assertTrue(project.file("app.py")
+      .contains("web.Application(middlewares=middlewares, client_max_size=client_max_size)"));
+    project.assertTestsPass("tests/test_params.py");
+  }
+}
@@ -0,0 +1,59 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * serializationMode=compiled: the per-model from_dict and to_dict functions.
+ */
+public class CompiledSerializersTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void compiledSerializationCoercesPrimitivesLikeReflectiveMode() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_SERIALIZATION_MODE, "compiled");
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_BENCHMARKS, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+
+    String pet = project.file("schemas/pet.py");
+    assertFalse(pet.contains("util.deserialize_model"));
+    assertTrue(pet.contains("(value if type(value) is int else util._deserialize_primitive(value, int))"));
+    assertTrue(pet.contains("(value if type(value) is str else util._deserialize_primitive(value, str))"));
+    assertTrue(pet.contains("(value if type(value) is float else util._deserialize_primitive(value, float))"));
+    assertTrue(pet.contains("(value if type(value) is bool else util._deserialize_primitive(value, bool))"));
+    assertTrue(pet.contains(
+      "[(x0 if type(x0) is str else util._deserialize_primitive(x0, str)) for x0 in value]"));
+    assertTrue(pet.contains("formats.decode('date-time', value)"));
+    // the generated benchmarks compare both modes on the schema sample
+    assertTrue(project.find("tests/schemas", "pet_benchmark.py")
+      .contains("def test_from_dict_matches_reflective():"));
+  }
+
+  @Test
+  public void compiledToDictPassesNonModelValuesThroughLikeReflectiveMode() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_SERIALIZATION_MODE, "compiled");
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+
+    String pet = project.file("schemas/pet.py");
+    assertTrue(pet.contains("result['owner'] = (value.to_dict() if isinstance(value, Model) else value)"));
+    assertTrue(pet.contains(
+      "result['previousOwners'] = [(x0.to_dict() if isinstance(x0, Model) else x0) for x0 in value]"));
+    project.assertScriptPasses(String.join("\n",
+      "from petstore.schemas import Owner, Pet",
+      "from petstore.schemas.base_model import Model",
+      "pet = Pet(name='Rex', owner={'name': 'Ann'}, previous_owners=[Owner(name='Bob'), None])",
+      "expected = {'name': 'Rex', 'owner': {'name': 'Ann'}, 'previousOwners': [{'name': 'Bob'}, None]}",
+      "assert pet.to_dict() == expected, pet.to_dict()",
+      "assert Model.to_dict(pet) == expected, Model.to_dict(pet)"));
+  }
+}
@@ -0,0 +1,39 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * modelValidation=compiled: one generated pass over every constraint of a model.
+ */
+public class CompiledValidationTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void compiledValidationCollectsErrorsInOnePass() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_MODEL_VALIDATION, "compiled");
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+    String pet = project.file("schemas/pet.py");
+
+    assertTrue(pet.contains("def _collect_errors(self, path: str) -> list[str]:"));
+    assertTrue(pet.contains("if len(value) > 64:"));
+    project.assertScriptPasses(String.join("\n",
+      "from petstore.schemas.owner import Owner",
+      "from petstore.schemas.pet import Pet",
+      "from petstore.util import ValidationError",
+      "Pet(name='Rex', previous_owners=[Owner(name='Bob'), None]).validate()",
+      "try:",
+      "    Pet(name='x' * 65).validate()",
+      "    raise SystemExit('a name past maxLength passed validation')",
+      "except ValidationError as error:",
+      "    assert error.errors == ['name: length must be less than or equal to 64'], error.errors"));
+  }
+}
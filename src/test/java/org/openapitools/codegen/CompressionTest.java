@@ -0,0 +1,38 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * featureCompression: response compression negotiated from Accept-Encoding.
+ */
+public class CompressionTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void featureCompressionAddsTheCompressionMiddleware() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_COMPRESSION, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+
+    assertTrue(project.has("compression.py"));
+    assertTrue(project.file("app.py").contains("compression.setup(app)"));
+    project.assertCompiles();
+  }
+
+  @Test
+  public void compressionIsOffByDefault() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+
+    assertFalse(project.has("compression.py"));
+    assertFalse(project.file("app.py").contains("compression"));
+  }
+}
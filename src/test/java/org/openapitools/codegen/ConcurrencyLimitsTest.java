@@ -0,0 +1,37 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * x-max-concurrency: the per-operation concurrency limits of limits.py.
+ */
+public class ConcurrencyLimitsTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void limitsHoldTheirSlotUntilTheResponseIsWritten() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+    String controllers = project.controllers();
+
+    assertTrue(project.has("limits.py"));
+    assertTrue(controllers.contains(
+      "_LIST_PETS_LIMIT = _limits.ConcurrencyLimit(\"list_pets\", max_concurrency=8, queue_timeout=0.1)"));
+    // the streamed items of list_pets are written inside the slot
+    assertTrue(controllers.contains("    async with _LIST_PETS_LIMIT.slot():\n"
+      + "        handler = _get_handler()\n"));
+    assertTrue(controllers.contains("        if _is_stream_result(result):\n"
+      + "            return await _stream_response(\n"));
+    assertFalse(controllers.contains("_LIST_PETS_LIMIT.run("));
+    project.assertCompiles();
+    project.assertTestsPass("tests/test_limits.py",
+      "tests/controllers/test_pets_api_controller_test.py::test_list_pets_keeps_its_slot_while_streaming");
+  }
+}
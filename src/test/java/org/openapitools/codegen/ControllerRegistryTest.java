@@ -0,0 +1,40 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The static controller registry the application registers its routes from.
+ */
+public class ControllerRegistryTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void controllersAreListedInDeclarationOrder() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+    String registry = project.file("controllers/__init__.py");
+
+    assertTrue(registry.contains("CONTROLLERS: tuple[ControllerEntry, ...] = (\n"
+      + "    ControllerEntry(\"pets_api\", \"pets_api_controller\"),\n)"));
+    assertFalse(project.has("bench/startup.py"));
+  }
+
+  @Test
+  public void startupBenchmarkComesWithFeatureBenchmarks() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_BENCHMARKS, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+
+    assertTrue(project.file("bench/startup.py")
+      .contains("(\"pets_api\", \"pets_api_handler\", \"IPetsApiHandler\"),"));
+    project.assertCompiles();
+  }
+}
@@ -0,0 +1,37 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * x-timeout-ms: the request deadlines of deadlines.py.
+ */
+public class DeadlinesTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void deadlinesRunFromTheArrivalOfTheRequest() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+    String deadlines = project.file("deadlines.py");
+
+    assertTrue(project.controllers().contains("async with _deadlines.Deadline(request, \"get_pet\", 2):"));
+    // the outermost middleware stamps the arrival, which Deadline measures from
+    assertTrue(deadlines.contains("request[ARRIVAL_KEY] = asyncio.get_running_loop().time()"));
+    assertTrue(deadlines.contains("app.middlewares.insert(0, arrival_middleware)"));
+    assertTrue(deadlines.contains("deadline = arrival + self._timeout"));
+    // only the relative header runs from the arrival, the absolute one is converted at entry
+    assertTrue(deadlines.contains("requested = _header_deadline(self._request, now, arrival)"));
+    assertTrue(deadlines.contains("deadline = now + float(value) - time.time()"));
+    assertTrue(deadlines.contains("relative = arrival + float(value) / 1000"));
+    String app = project.file("app.py");
+    assertTrue(app.contains("from . import deadlines"));
+    assertTrue(app.contains("    deadlines.setup(app)\n"));
+    project.assertTestsPass("tests/test_deadlines.py");
+  }
+}
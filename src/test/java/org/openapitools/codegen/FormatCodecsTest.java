@@ -0,0 +1,36 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The format registry for date, date-time, uuid, byte and binary values.
+ */
+public class FormatCodecsTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void formatValuesKeepTheirWireFormatWithEveryJsonLibrary() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_JSON_LIBRARY, "msgspec");
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+    // msgspec encodes dates, UUIDs and bytes natively, so the format registry runs first
+    assertTrue(project.file("codec.py").contains("return _encoder.encode(formats.to_json_types(value))"));
+    assertTrue(project.file("formats.py").contains("def to_json_types(value: Any) -> Any:"));
+    project.assertTestsPass("tests/test_codec.py");
+
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_JSON_LIBRARY, "orjson");
+    project = GeneratedProject.generate(output, properties);
+    String codec = project.file("codec.py");
+    assertTrue(codec.contains("option=orjson.OPT_PASSTHROUGH_DATETIME"));
+    assertTrue(codec.contains("if not formats.is_default(\"uuid\"):"));
+    project.assertTestsPass("tests/test_codec.py");
+  }
+}
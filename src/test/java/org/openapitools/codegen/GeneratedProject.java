@@ -0,0 +1,190 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openapitools.codegen.config.CodegenConfigurator;
+
+/**
+ * A project generated from petstore-features.yaml into a temporary directory, with the
+ * lookups and Python checks the generator tests share.
+ */
+final class GeneratedProject {
+
+  static final String SPEC = "/petstore-features.yaml";
+  static final String PACKAGE = "petstore";
+
+  private static final long PYTHON_TIMEOUT_SECONDS = 300;
+  private static Boolean pythonTestsAvailable;
+
+  private final Path root;
+
+  private GeneratedProject(Path root) {
+    this.root = root;
+  }
+
+  static GeneratedProject generate(Path output, Map<String, Object> properties)
+    throws IOException, URISyntaxException {
+    GeneratedProject project = new GeneratedProject(Files.createTempDirectory(output, "generated"));
+    project.regenerate(properties);
+    return project;
+  }
+
+  /*
+   * Generates the document again into the same directory, over the files of the previous run.
+   */
+  void regenerate(Map<String, Object> properties) throws URISyntaxException {
+    CodegenConfigurator configurator = new CodegenConfigurator()
+      .setGeneratorName("aiohttp-openapi-codegen")
+      .setInputSpec(new File(GeneratedProject.class.getResource(SPEC).toURI()).getAbsolutePath())
+      .setOutputDir(root.toAbsolutePath().toString())
+      .addAdditionalProperty(CodegenConstants.PACKAGE_NAME, PACKAGE);
+    for (Map.Entry<String, Object> property : properties.entrySet()) {
+      configurator.addAdditionalProperty(property.getKey(), property.getValue());
+    }
+    new DefaultGenerator().opts(configurator.toClientOptInput()).generate();
+  }
+
+  Path path(String path) {
+    return root.resolve(path);
+  }
+
+  boolean exists(String path) {
+    return Files.isRegularFile(root.resolve(path));
+  }
+
+  boolean has(String packagePath) {
+    return exists(PACKAGE + "/" + packagePath);
+  }
+
+  String read(String path) throws IOException {
+    return new String(Files.readAllBytes(root.resolve(path)), StandardCharsets.UTF_8);
+  }
+
+  String file(String packagePath) throws IOException {
+    assertTrue(has(packagePath), packagePath + " was not generated");
+    return read(PACKAGE + "/" + packagePath);
+  }
+
+  /*
+   * The sources of the files in a package directory whose names end with the suffix, as the
+   * test and controller file names depend on the python naming of the base generator.
+   */
+  String find(String packageDirectory, String suffix) throws IOException {
+    Map<String, String> sources = new TreeMap<>();
+    Path directory = root.resolve(PACKAGE + "/" + packageDirectory);
+    assertTrue(Files.isDirectory(directory), packageDirectory + " was not generated");
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.filter(path -> path.getFileName().toString().endsWith(suffix))
+        .collect(Collectors.toList())) {
+        sources.put(file.getFileName().toString(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+      }
+    }
+    assertFalse(sources.isEmpty(), "no " + suffix + " in " + packageDirectory);
+    return String.join("\n", sources.values());
+  }
+
+  String controllers() throws IOException {
+    return find("controllers", "_controller.py");
+  }
+
+  /*
+   * Byte-compiles every generated module, so template output that is not valid Python fails the
+   * generator build. Skipped where no python3 is installed.
+   */
+  void assertCompiles() throws IOException, InterruptedException {
+    assumeTrue(python("-c", "pass").exitCode == 0, "python3 is not installed");
+    PythonRun run = python("-m", "compileall", "-q", PACKAGE);
+    assertEquals(0, run.exitCode, run.output);
+  }
+
+  /*
+   * Runs a Python script against the generated modules that do not need aiohttp. The package is
+   * loaded without its __init__, which imports the application. Skipped where no python3 is installed.
+   */
+  void assertScriptPasses(String script) throws IOException, InterruptedException {
+    assumeTrue(python("-c", "pass").exitCode == 0, "python3 is not installed");
+    PythonRun run = python("-c", "import sys, types\n"
+      + "package = types.ModuleType('" + PACKAGE + "')\n"
+      + "package.__path__ = ['" + PACKAGE + "']\n"
+      + "sys.modules['" + PACKAGE + "'] = package\n"
+      + script);
+    assertEquals(0, run.exitCode, run.output);
+  }
+
+  /*
+   * Runs generated pytest modules, or single tests given as module::test, against the generated
+   * package. Skipped unless python3 can import aiohttp, pytest and pytest-aiohttp, which the
+   * generated test-requirements.txt install.
+   */
+  void assertTestsPass(String... packagePaths) throws IOException, InterruptedException {
+    assumeTrue(pythonTestsAvailable(), "python3 with aiohttp, pytest and pytest-aiohttp is not installed");
+    List<String> arguments = new ArrayList<>(Arrays.asList("-m", "pytest", "-q", "-o", "asyncio_mode=auto",
+      "-p", "no:randomly", "-p", "no:cacheprovider"));
+    for (String packagePath : packagePaths) {
+      String module = packagePath.split("::", 2)[0];
+      assertTrue(has(module), module + " was not generated");
+      arguments.add(PACKAGE + "/" + packagePath);
+    }
+    PythonRun run = python(arguments.toArray(new String[0]));
+    assertEquals(0, run.exitCode, run.output);
+  }
+
+  private boolean pythonTestsAvailable() throws IOException, InterruptedException {
+    synchronized (GeneratedProject.class) {
+      if (pythonTestsAvailable == null) {
+        pythonTestsAvailable = python("-c", "import aiohttp, pytest, pytest_aiohttp").exitCode == 0;
+      }
+      return pythonTestsAvailable;
+    }
+  }
+
+  private PythonRun python(String... arguments) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add("python3");
+    command.addAll(Arrays.asList(arguments));
+    Path log = Files.createTempFile(root, "python", ".log");
+    ProcessBuilder builder = new ProcessBuilder(command).directory(root.toFile())
+      .redirectErrorStream(true).redirectOutput(log.toFile());
+    builder.environment().put("PYTHONDONTWRITEBYTECODE", "1");
+    builder.environment().put("PYTHONPATH", root.toString());
+    Process process;
+    try {
+      process = builder.start();
+    } catch (IOException e) {
+      return new PythonRun(-1, e.getMessage());
+    }
+    if (!process.waitFor(PYTHON_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+      process.destroyForcibly().waitFor();
+      return new PythonRun(-1, "python3 timed out\n" + read(root.relativize(log).toString()));
+    }
+    return new PythonRun(process.exitValue(), read(root.relativize(log).toString()));
+  }
+
+  private static final class PythonRun {
+
+    private final int exitCode;
+    private final String output;
+
+    private PythonRun(int exitCode, String output) {
+      this.exitCode = exitCode;
+      this.output = output;
+    }
+  }
+}
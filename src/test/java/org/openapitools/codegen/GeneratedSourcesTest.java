@@ -0,0 +1,69 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Generates petstore-features.yaml with the default options and with every option turned on, and
+ * checks that the output is a Python package that compiles.
+ */
+public class GeneratedSourcesTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void defaultsGenerateOnlyTheCoreFiles() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+
+    assertTrue(project.has("app.py"));
+    assertTrue(project.has("codec.py"));
+    assertTrue(project.has("params.py"));
+    assertTrue(project.has("formats.py"));
+    assertTrue(project.has("__main__.py"));
+    assertTrue(project.has("schemas/pet.py"));
+    assertFalse(project.has("metrics.py"));
+    assertFalse(project.has("compression.py"));
+    assertFalse(project.has("offload.py"));
+    assertFalse(project.has("batch.py"));
+    assertFalse(project.has("bench/load.py"));
+    assertFalse(project.exists(".openapi-generator/aiohttp-incremental.json"));
+    assertTrue(project.file("schemas/pet.py").contains("return util.deserialize_model(dikt, cls)"));
+    assertFalse(project.file("schemas/pet.py").contains("__slots__"));
+    assertFalse(project.file("codec.py").contains("import orjson"));
+    assertFalse(project.file("codec.py").contains("import msgspec"));
+  }
+
+  @Test
+  public void defaultOptionsGenerateValidPython() throws Exception {
+    GeneratedProject.generate(output, new HashMap<>()).assertCompiles();
+  }
+
+  @Test
+  public void everyOptionGeneratesValidPython() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_SERIALIZATION_MODE, "compiled");
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_JSON_LIBRARY, "msgspec");
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_MODEL_MODE, "slots");
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_MODEL_VALIDATION, "compiled");
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_DICT_RESPONSE_MODE, "validate");
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_VALIDATE_RESPONSES, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_LAZY_CONTROLLERS, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_LAZY_SCHEMAS, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_CORS, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_METRICS, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_COMPRESSION, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_OFFLOAD, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_BATCH, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_BENCHMARKS, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_MAX_CONCURRENCY, 16);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_REQUEST_TIMEOUT_MS, 5000);
+    GeneratedProject.generate(output, properties).assertCompiles();
+  }
+}
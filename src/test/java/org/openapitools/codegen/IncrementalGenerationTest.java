@@ -0,0 +1,54 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * incremental: outputs whose inputs did not change are left alone on the next run.
+ */
+public class IncrementalGenerationTest {
+
+  private static final FileTime EARLIER = FileTime.fromMillis(1_000_000_000_000L);
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void incrementalGenerationWritesTheManifest() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_INCREMENTAL, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+
+    assertTrue(project.exists(IncrementalGeneration.MANIFEST_PATH));
+    assertTrue(project.read(IncrementalGeneration.MANIFEST_PATH).contains("pet.py"));
+  }
+
+  @Test
+  public void unchangedOutputsAreNotRewritten() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_INCREMENTAL, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+    Path pet = project.path(GeneratedProject.PACKAGE + "/schemas/pet.py");
+    Files.setLastModifiedTime(pet, EARLIER);
+
+    project.regenerate(properties);
+    assertEquals(EARLIER, Files.getLastModifiedTime(pet));
+
+    // an edited file is rendered again
+    Files.write(pet, "# edited\n".getBytes(StandardCharsets.UTF_8));
+    Files.setLastModifiedTime(pet, EARLIER);
+    project.regenerate(properties);
+    assertNotEquals(EARLIER, Files.getLastModifiedTime(pet));
+    assertTrue(project.file("schemas/pet.py").contains("class Pet(Model):"));
+  }
+}
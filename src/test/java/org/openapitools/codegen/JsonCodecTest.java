@@ -0,0 +1,41 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * jsonLibrary: the codec module every controller encodes and decodes JSON through.
+ */
+public class JsonCodecTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void jsonLibrarySelectsTheCodec() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_JSON_LIBRARY, "orjson");
+    assertTrue(GeneratedProject.generate(output, properties).file("codec.py").contains("import orjson"));
+
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_JSON_LIBRARY, "msgspec");
+    assertTrue(GeneratedProject.generate(output, properties).file("codec.py").contains("import msgspec"));
+  }
+
+  @Test
+  public void jsonResponsesKeepTheContentTypeOfTheirHeaders() throws Exception {
+    for (String library : new String[] {"stdlib", "orjson", "msgspec"}) {
+      Map<String, Object> properties = new HashMap<>();
+      properties.put(AiohttpOpenapiCodegenGenerator.OPTION_JSON_LIBRARY, library);
+      GeneratedProject project = GeneratedProject.generate(output, properties);
+
+      assertTrue(project.file("codec.py").contains(
+        "if headers and any(name.lower() == \"content-type\" for name in headers):"));
+      project.assertTestsPass("tests/test_codec.py");
+    }
+  }
+}
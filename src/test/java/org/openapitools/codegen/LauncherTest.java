@@ -0,0 +1,39 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The pre-fork launcher of __main__.py.
+ */
+public class LauncherTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void launcherWaitsInterruptiblyBetweenRestarts() throws Exception {
+    String launcher = GeneratedProject.generate(output, new HashMap<>()).file("__main__.py");
+
+    assertFalse(launcher.contains("time.sleep("));
+    assertTrue(launcher.contains("self._wait(self.restart_delay)"));
+    assertTrue(launcher.contains("select.select([self.wakeup_read], [], [], timeout)"));
+  }
+
+  @Test
+  public void rollingRestartsStopAtSigtermAndRestartCrashedWorkers() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+    String launcher = project.file("__main__.py");
+
+    assertTrue(launcher.contains("            if self.stop_requested:\n                return"));
+    assertTrue(launcher.contains("            self._stop([pid])\n"
+      + "            # workers that crashed meanwhile are restarted now rather than after the last replacement\n"
+      + "            self._reap_and_restart()\n"));
+    project.assertTestsPass("tests/test_launcher.py");
+  }
+}
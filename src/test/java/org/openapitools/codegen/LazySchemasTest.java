@@ -0,0 +1,40 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * lazySchemas: schema modules imported on first access through the package __getattr__.
+ */
+public class LazySchemasTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void lazySchemasIndexTheSchemasPackage() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_LAZY_SCHEMAS, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+    String index = project.file("schemas/__init__.py");
+
+    assertTrue(index.contains("def __getattr__(name: str):"));
+    assertTrue(index.contains("\"Pet\": \"pet\","));
+    project.assertScriptPasses(String.join("\n",
+      "import petstore.schemas as schemas",
+      "assert 'petstore.schemas.error' not in sys.modules",
+      "assert 'Error' in dir(schemas) and 'Error' in schemas.__all__",
+      "assert schemas.Error.__module__ == 'petstore.schemas.error'",
+      "assert 'petstore.schemas.error' in sys.modules",
+      "try:",
+      "    schemas.Missing",
+      "    raise SystemExit('unknown schema names resolve')",
+      "except AttributeError:",
+      "    pass"));
+  }
+}
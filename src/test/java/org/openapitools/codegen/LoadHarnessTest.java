@@ -0,0 +1,36 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The load-test harness bench/load.py and the example requests it sends.
+ */
+public class LoadHarnessTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void loadHarnessComesWithFeatureBenchmarks() throws Exception {
+    assertFalse(GeneratedProject.generate(output, new HashMap<>()).has("bench/load.py"));
+
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_BENCHMARKS, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+    String load = project.file("bench/load.py");
+
+    for (String operation : new String[] {"create_pet", "get_pet", "get_pet_name", "list_pets", "update_pet"}) {
+      assertTrue(load.contains("        \"" + operation + "\", \"pets_api\", "), operation);
+    }
+    // the example requests are written as escaped Python literals
+    assertTrue(load.contains("        query=(('o\\'brien\\\\tag', 'example'), ),"));
+    project.assertCompiles();
+  }
+}
@@ -0,0 +1,41 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * featureMetrics: the per-operation metrics middleware and its Prometheus endpoint.
+ */
+public class MetricsTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void featureMetricsAddsTheMetricsModule() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_METRICS, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+
+    assertTrue(project.has("metrics.py"));
+    assertTrue(project.file("app.py").contains("registry = metrics.setup(app)"));
+    assertFalse(project.has("bench/metrics_overhead.py"));
+  }
+
+  @Test
+  public void metricsOverheadBenchmarkComesWithFeatureBenchmarks() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_METRICS, true);
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_BENCHMARKS, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+
+    assertTrue(project.has("bench/metrics_overhead.py"));
+    project.assertCompiles();
+  }
+}
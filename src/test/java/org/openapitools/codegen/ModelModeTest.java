@@ -0,0 +1,50 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * modelMode: the memory layout of the generated models.
+ */
+public class ModelModeTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void slotsModelModeDeclaresSlots() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_MODEL_MODE, "slots");
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+    String pet = project.file("schemas/pet.py");
+
+    assertTrue(pet.contains("__slots__ = ("));
+    assertTrue(pet.contains("'_name',"));
+    assertFalse(project.has("bench/model_memory.py"));
+    project.assertScriptPasses(String.join("\n",
+      "from petstore.schemas.pet import Pet",
+      "pet = Pet.from_dict({'id': 1, 'name': 'Rex', 'owner': {'name': 'Bob'}})",
+      "assert not hasattr(pet, '__dict__')",
+      "assert pet.to_dict() == {'id': 1, 'name': 'Rex', 'owner': {'name': 'Bob'}}",
+      "try:",
+      "    pet.nickname = 'Rexy'",
+      "    raise SystemExit('slotted models accept unknown attributes')",
+      "except AttributeError:",
+      "    pass"));
+  }
+
+  @Test
+  public void modelMemoryBenchmarkComesWithFeatureBenchmarks() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_BENCHMARKS, true);
+    String bench = GeneratedProject.generate(output, properties).file("bench/model_memory.py");
+
+    assertTrue(bench.contains("\"Pet\","));
+  }
+}
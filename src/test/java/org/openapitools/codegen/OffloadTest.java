@@ -0,0 +1,59 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * featureOffload: large bodies decoded and encoded in a thread pool, and the clientMaxSize they
+ * have to fit in.
+ */
+public class OffloadTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void featureOffloadAddsTheOffloadPolicies() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_OFFLOAD, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+
+    assertTrue(project.has("offload.py"));
+    assertTrue(project.file("offload.py").contains("THRESHOLD = 262144"));
+    assertTrue(project.file("app.py").contains("offload.setup(app)"));
+    assertTrue(project.controllers().contains("_GET_PET_OFFLOAD = _offload.Policy(\"get_pet\")"));
+    String tests = project.find("tests/controllers", "_controller_test.py");
+    assertTrue(tests.contains("async def test_update_pet_offloaded_body(client):"));
+    assertTrue(tests.contains("body = b'{\"padding\": \"' + b\"x\" * offload.THRESHOLD + b'\"}'"));
+    // createPet declares a body limit, which may lie below the threshold
+    assertFalse(tests.contains("async def test_create_pet_offloaded_body(client):"));
+  }
+
+  @Test
+  public void featureOffloadKeepsTheClientMaxSize() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_OFFLOAD, true);
+    // the 4 MiB limit of create_pet, not a multiple of offloadThreshold
+    assertTrue(GeneratedProject.generate(output, properties).file("app.py").contains("CLIENT_MAX_SIZE = 4194304\n"));
+  }
+
+  @Test
+  public void clientMaxSizeSetsTheDefaultOfCreateApp() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_CLIENT_MAX_SIZE, 8388608);
+    assertTrue(GeneratedProject.generate(output, properties).file("app.py").contains("CLIENT_MAX_SIZE = 8388608\n"));
+
+    // the body limits of the spec still raise a smaller one
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_CLIENT_MAX_SIZE, 2097152);
+    assertTrue(GeneratedProject.generate(output, properties).file("app.py").contains("CLIENT_MAX_SIZE = 4194304\n"));
+
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_CLIENT_MAX_SIZE, 0);
+    assertTrue(GeneratedProject.generate(output, properties).file("app.py").contains("CLIENT_MAX_SIZE = 0\n"));
+  }
+}
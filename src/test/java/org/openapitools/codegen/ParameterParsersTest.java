@@ -0,0 +1,27 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The generated query, header, cookie and path parameter parsers.
+ */
+public class ParameterParsersTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void parameterNamesAreEscapedInPythonLiterals() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+    String controllers = project.controllers();
+
+    assertTrue(controllers.contains("value = query.get('o\\'brien\\\\tag')"));
+    assertTrue(controllers.contains("_params.missing('o\\'brien\\\\tag', 'query')"));
+    project.assertCompiles();
+  }
+}
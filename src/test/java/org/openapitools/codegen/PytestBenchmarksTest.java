@@ -0,0 +1,41 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The pytest-benchmark tests generated per schema and per operation.
+ */
+public class PytestBenchmarksTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void benchmarksAreGeneratedPerSchemaAndOperation() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put(AiohttpOpenapiCodegenGenerator.OPTION_FEATURE_BENCHMARKS, true);
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+
+    assertTrue(project.find("tests/schemas", "pet_benchmark.py").contains("def test_from_dict(benchmark):"));
+    assertTrue(project.find("tests/controllers", "_controller_benchmark.py")
+      .contains("def test_get_pet(benchmark, stub_server):"));
+    // saved runs record the generator options
+    assertTrue(project.file("tests/conftest.py").contains("GENERATOR = {"));
+  }
+
+  @Test
+  public void benchmarksAreOffByDefault() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+
+    assertFalse(Files.exists(project.path(GeneratedProject.PACKAGE + "/tests/schemas")));
+    assertFalse(project.file("tests/conftest.py").contains("benchmark"));
+  }
+}
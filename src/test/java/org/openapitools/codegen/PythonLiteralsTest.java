@@ -0,0 +1,28 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The Python literals the generator writes names and values of the document as.
+ */
+public class PythonLiteralsTest {
+
+  @Test
+  public void stringsEscapeQuotesBackslashesAndControlCharacters() {
+    assertEquals("'x-api-key'", PythonLiterals.string("x-api-key"));
+    assertEquals("'o\\'brien\\\\tag'", PythonLiterals.string("o'brien\\tag"));
+    assertEquals("'a\\nb\\rc\\x09d\\x7f'", PythonLiterals.string("a\nb\rc\td\u007f"));
+    assertEquals("'\"pets\"'", PythonLiterals.string("\"pets\""));
+  }
+
+  @Test
+  public void tuplesOfOneItemKeepTheTrailingComma() {
+    assertEquals("()", PythonLiterals.tuple(Collections.emptyList()));
+    assertEquals("('if-none-match',)", PythonLiterals.tuple(Collections.singletonList("if-none-match")));
+    assertEquals("('a', 'b')", PythonLiterals.tuple(Arrays.asList("a", "b")));
+  }
+}
@@ -0,0 +1,31 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * x-cache: the in-process response caches of GET operations.
+ */
+public class ResponseCacheTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void cachedOperationsGetAResponseCache() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+    String controllers = project.controllers();
+
+    assertTrue(project.has("cache.py"));
+    assertTrue(controllers.contains(
+      "_GET_PET_CACHE = _cache.ResponseCache(\"get_pet\", ttl=30, max_entries=1024, max_bytes=16777216, "
+        + "credentials=(('header', 'x-api-key'),))"));
+    assertFalse(controllers.contains("_LIST_PETS_CACHE"));
+    project.assertTestsPass("tests/test_cache.py");
+  }
+}
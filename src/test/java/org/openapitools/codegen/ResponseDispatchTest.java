@@ -0,0 +1,33 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The per-operation response dispatch tables of the controllers.
+ */
+public class ResponseDispatchTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void primitiveResponsesAreNotDispatchedAsModels() throws Exception {
+    String controllers = GeneratedProject.generate(output, new HashMap<>()).controllers();
+
+    // a str returned by the handler must not reach the to_dict() of the model branch
+    assertTrue(controllers.contains("_GET_PET_NAME_RESPONSE = _ResponseSpec(\n"
+      + "    statuses=MappingProxyType({\n"
+      + "    }),\n"
+      + "    default_status=200,\n"
+      + "    default_cls=None,\n"
+      + ")"));
+    assertFalse(controllers.contains("import str"));
+    assertTrue(controllers.contains("        Pet: 200,\n        Error: 404,\n"));
+  }
+}
@@ -0,0 +1,43 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * x-coalesce: the request coalescing of singleflight.py.
+ */
+public class SingleFlightTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void coalescedResponsesAreSharedPerCallerOnly() throws Exception {
+    GeneratedProject project = GeneratedProject.generate(output, new HashMap<>());
+    String singleflight = project.file("singleflight.py");
+    String codec = project.file("codec.py");
+
+    assertTrue(project.has("singleflight.py"));
+    // the key carries the credentials of the caller, like the response cache key
+    assertTrue(project.controllers().contains(
+      "_GET_PET_FLIGHTS = _singleflight.SingleFlight(\"get_pet\", headers=('if-none-match',), cookies=(), "
+        + "credentials=(('header', 'x-api-key'),))"));
+    assertTrue(singleflight.contains(
+      "tuple(codec.credential(request, location, name) for location, name in self.credentials)"));
+    assertTrue(project.file("cache.py").contains("codec.credential(request, location, name)"));
+    assertTrue(codec.contains("def credential(request: web.Request, location: str, name: str) -> str | None:"));
+    assertFalse(project.file("params.py").contains("credential"));
+    // Set-Cookie and hop-by-hop headers stay with the first request
+    assertTrue(codec.contains("\"set-cookie\", \"connection\", \"keep-alive\""));
+    assertTrue(codec.contains("__all__ = (\"CLIENT_HEADERS\", "));
+    assertTrue(singleflight.contains(
+      "_SKIPPED_HEADERS = frozenset((\"content-length\", \"transfer-encoding\")) | codec.CLIENT_HEADERS"));
+    assertTrue(project.file("cache.py").contains("| codec.CLIENT_HEADERS"));
+    project.assertTestsPass("tests/test_singleflight.py");
+  }
+}
@@ -0,0 +1,30 @@
+package org.openapitools.codegen;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Streamed responses of async iterables and HandlerStreamResponse.
+ */
+public class StreamingResponsesTest {
+
+  @TempDir
+  Path output;
+
+  @Test
+  public void streamsWriteItemsWhileTheProducerWaits() throws Exception {
+    Map<String, Object> properties = new HashMap<>();
+    GeneratedProject project = GeneratedProject.generate(output, properties);
+
+    String controllers = project.controllers();
+    assertTrue(controllers.contains("if first or len(buffer) >= STREAM_CHUNK_SIZE:"));
+    assertTrue(controllers.contains("if not await _is_ready(step):"));
+    project.assertTestsPass(
+      "tests/controllers/test_pets_api_controller_test.py::test_streams_write_items_while_the_producer_waits");
+  }
+}